@@ -1,5 +1,6 @@
 package ir.monopoly.client;
 
+import ir.monopoly.shared.ExecutionMode;
 import javafx.animation.TranslateTransition;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -352,16 +353,7 @@ public class MonopolyGUI extends Application {
                         int playerId = Integer.parseInt(getJsonVal(json, "playerId"));
                         String status = getJsonVal(json, "status");
                         if (playerId == myPlayerId) {
-                            inJail = status.equals("IN_JAIL");
-                            jailTurns = Integer.parseInt(getJsonVal(json, "jailTurns"));
-
-                            if (inJail) {
-                                jailPanel.setVisible(true);
-                                jailStatusLabel.setText("🔒 IN JAIL - Turn " + jailTurns + "/3\nRoll doubles or pay $50 next turn!");
-                                updateControlStates();
-                            } else {
-                                jailPanel.setVisible(false);
-                            }
+                            applyJailStatus(status.equals("IN_JAIL"), Integer.parseInt(getJsonVal(json, "jailTurns")));
                         }
                     }
                     case "PROPERTY_LIST" -> {
@@ -472,24 +464,8 @@ public class MonopolyGUI extends Application {
                             }
                         });
                     }
-                    case "SHOW_CARD" -> {
-                        String text = getJsonVal(json, "text");
-                        text = unescapeJson(text);
-
-                        if (text.contains("MONOPOLY LEADERBOARD") || text.contains("TOP 3 BY WEALTH")) {
-                            showLeaderboardDialog(text);
-                        } else if (text.contains("AUCTION") || text.contains("JAIL") || text.contains("Doubles")) {
-                            logArea.appendText("➤ " + text + "\n");
-                            if (text.contains("IN_JAIL") || text.contains("Jail") || text.contains("Doubles")) {
-                                updateJailStatusFromMessage(text);
-                            }
-                        } else {
-                            logArea.appendText("➤ " + text + "\n");
-                            Alert a = new Alert(Alert.AlertType.INFORMATION, text);
-                            a.setHeaderText("Game Event");
-                            a.show();
-                        }
-                    }
+                    case "SHOW_CARD" -> showCard(unescapeJson(getJsonVal(json, "text")));
+                    case "STATE_DELTA" -> applyStateDelta(json);
                     case "EVENT_LOG" -> {
                         String unescapedMsg = unescapeJson(msg);
                         logArea.appendText("➤ " + unescapedMsg + "\n");
@@ -515,6 +491,80 @@ public class MonopolyGUI extends Application {
         });
     }
 
+    private void showCard(String text) {
+        if (text.contains("MONOPOLY LEADERBOARD") || text.contains("TOP 3 BY WEALTH")) {
+            showLeaderboardDialog(text);
+        } else if (text.contains("AUCTION") || text.contains("JAIL") || text.contains("Doubles")) {
+            logArea.appendText("➤ " + text + "\n");
+            if (text.contains("IN_JAIL") || text.contains("Jail") || text.contains("Doubles")) {
+                updateJailStatusFromMessage(text);
+            }
+        } else {
+            logArea.appendText("➤ " + text + "\n");
+            Alert a = new Alert(Alert.AlertType.INFORMATION, text);
+            a.setHeaderText("Game Event");
+            a.show();
+        }
+    }
+
+    private void applyJailStatus(boolean jailed, int turns) {
+        inJail = jailed;
+        jailTurns = turns;
+
+        if (inJail) {
+            jailPanel.setVisible(true);
+            jailStatusLabel.setText("🔒 IN JAIL - Turn " + jailTurns + "/3\nRoll doubles or pay $50 next turn!");
+            updateControlStates();
+        } else {
+            jailPanel.setVisible(false);
+        }
+    }
+
+    // players: "id:field=value,field=value|id:..." carrying only the fields that changed.
+    private void applyStateDelta(String json) {
+        String players = getJsonVal(json, "players");
+        if (!players.isEmpty()) {
+            for (String entry : players.split("\\|")) {
+                String[] idAndFields = entry.split(":", 2);
+                if (idAndFields.length < 2) continue;
+                int pId = Integer.parseInt(idAndFields[0]);
+
+                String status = null;
+                int turns = jailTurns;
+                for (String field : idAndFields[1].split(",")) {
+                    String[] kv = field.split("=", 2);
+                    if (kv.length < 2) continue;
+                    switch (kv[0]) {
+                        case "balance" -> {
+                            if (pId == myPlayerId) balanceLabel.setText("💰 Balance: $" + kv[1]);
+                        }
+                        case "position" -> {
+                            int pos = Integer.parseInt(kv[1]);
+                            moveToken(pId, pos);
+                            logArea.appendText("➤ Player " + pId + " moved to position " + pos + "\n");
+                        }
+                        case "status" -> status = kv[1];
+                        case "jailTurns" -> turns = Integer.parseInt(kv[1]);
+                    }
+                }
+
+                if (pId == myPlayerId && (status != null || turns != jailTurns)) {
+                    applyJailStatus(status != null ? status.equals("IN_JAIL") : inJail, turns);
+                }
+            }
+        }
+
+        if (json.contains("\"properties\":")) {
+            updatePropertyList(unescapeJson(getJsonVal(json, "properties")));
+        }
+
+        String card = getJsonVal(json, "card");
+        if (!card.isEmpty()) showCard(unescapeJson(card));
+
+        String log = getJsonVal(json, "log");
+        if (!log.isEmpty()) logArea.appendText("➤ " + unescapeJson(log) + "\n");
+    }
+
     private void updateJailStatusFromMessage(String message) {
         if (message.contains("IN_JAIL") || message.contains("sent to Jail")) {
             inJail = true;
@@ -826,7 +876,7 @@ public class MonopolyGUI extends Application {
     }
 
     private void connectToServer() {
-        new Thread(() -> {
+        ExecutionMode.fromSystemProperty().startThread("server-connect", true, () -> {
             client = new NetworkClient();
             client.setOnMessageReceived(this::processMessage);
             try {
@@ -835,7 +885,7 @@ public class MonopolyGUI extends Application {
             } catch (Exception e) {
                 logArea.appendText("❌ Failed to connect: " + e.getMessage() + "\n");
             }
-        }).start();
+        });
     }
 
     private String getJsonVal(String j, String k) {
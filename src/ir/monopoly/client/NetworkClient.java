@@ -1,5 +1,6 @@
 package ir.monopoly.client;
 
+import ir.monopoly.shared.ExecutionMode;
 import java.io.*;
 import java.net.Socket;
 import java.util.function.Consumer;
@@ -10,15 +11,22 @@ public class NetworkClient {
     private BufferedReader in;
     private Consumer<String> onMessageReceived;
     private volatile boolean running = false;
+    private final ExecutionMode executionMode;
+
+    public NetworkClient() {
+        this(ExecutionMode.fromSystemProperty());
+    }
+
+    public NetworkClient(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
 
     public void connect(String ip, int port) throws IOException {
         this.socket = new Socket(ip, port);
         this.out = new PrintWriter(socket.getOutputStream(), true);
         this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
         this.running = true;
-        Thread listenerThread = new Thread(this::listenToServer);
-        listenerThread.setDaemon(true);
-        listenerThread.start();
+        executionMode.startThread("server-listener", true, this::listenToServer);
     }
 
     private void listenToServer() {
@@ -46,6 +54,10 @@ public class NetworkClient {
         this.onMessageReceived = listener;
     }
 
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
     public void close() {
         running = false;
         try {
@@ -0,0 +1,81 @@
+package ir.monopoly.server.benchmark;
+
+import ir.monopoly.server.game.GameState;
+import ir.monopoly.server.persistence.ArchiveReader;
+import ir.monopoly.server.persistence.ArchivedGame;
+import ir.monopoly.server.persistence.GameArchive;
+import ir.monopoly.server.persistence.GameHistory;
+import ir.monopoly.server.persistence.RecordType;
+import ir.monopoly.server.simulation.GreedyPolicy;
+import ir.monopoly.server.simulation.PlayerPolicy;
+import ir.monopoly.server.simulation.SimulationEngine;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Archives simulated games, then scans the archive through the mapped reader the way
+ * analytics would (rent paid and rolls per game) and looks games up by random id.
+ * Usage: ArchiveBenchmark [games] [seed]
+ */
+public class ArchiveBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        Path dir = Files.createTempDirectory("monopoly-archive");
+
+        PlayerPolicy greedy = new GreedyPolicy();
+        SimulationEngine engine = new SimulationEngine(new PlayerPolicy[]{greedy, greedy, greedy, greedy});
+        long start = System.nanoTime();
+        try (GameArchive archive = GameArchive.open(dir)) {
+            for (int g = 0; g < games; g++) {
+                GameState gs = engine.newGame(seed + g);
+                GameHistory history = new GameHistory(gs);
+                gs.setRecorder(history);
+                engine.play(gs);
+                archive.append(history);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("simulate + archive: %d games, %d MB in %.2fs (%.0f games/s)%n",
+                    games, archive.getBytesWritten() >> 20, seconds, games / seconds);
+        }
+
+        ArchiveReader reader = ArchiveReader.open(dir);
+        for (int pass = 0; pass < 3; pass++) {
+            long[] totals = new long[3];
+            start = System.nanoTime();
+            reader.forEach(game -> {
+                int records = game.getRecordCount();
+                for (int i = 0; i < records; i++) {
+                    RecordType type = game.getRecordType(i);
+                    if (type == RecordType.RENT) totals[0] += game.getRecordValue(i);
+                    else if (type == RecordType.ROLL) totals[1]++;
+                }
+                totals[2] += records;
+            });
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("scan pass %d: %d games, %d records in %.3fs (%.0f games/s, %.0f records/s) " +
+                            "rent/game=%.0f rolls/game=%.1f%n", pass + 1, reader.getGameCount(), totals[2], seconds,
+                    reader.getGameCount() / seconds, totals[2] / seconds,
+                    (double) totals[0] / games, (double) totals[1] / games);
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int lookups = 1_000_000;
+        long checksum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            ArchivedGame game = reader.get(1 + random.nextInt(games));
+            checksum += game.getTurns() + game.getWinnerId();
+        }
+        System.out.printf("lookup by id: %.0f ns/lookup (checksum %d)%n", (double) (System.nanoTime() - start) / lookups, checksum);
+
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package ir.monopoly.server.benchmark;
+
+import ir.monopoly.server.datastructure.IntIntMap;
+import ir.monopoly.server.datastructure.MyHashTable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Compares MyHashTable, java.util.HashMap and IntIntMap on int keys: building the
+ * table, looking up present keys and iterating all entries, at board size and beyond.
+ * "MyHashTable0" is a copy of MyHashTable before it could resize (100 fixed chained
+ * buckets), kept here as the baseline. Each case is warmed up before it is timed;
+ * results are ns per operation.
+ * Usage: HashTableBenchmark [seed]
+ */
+public class HashTableBenchmark {
+    private static final int[] SIZES = {40, 1_000, 100_000};
+    private static final int OPERATIONS = 4_000_000;
+    private static long blackhole;
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+        System.out.printf("%-12s %8s %10s %10s %10s%n", "table", "size", "put ns", "get ns", "iter ns");
+        for (int size : SIZES) {
+            int[] keys = new SplittableRandom(seed).ints(size).toArray();
+            int[] probes = new SplittableRandom(seed + 1).ints(OPERATIONS, 0, size).map(i -> keys[i]).toArray();
+            for (int round = 0; round < 2; round++) {
+                boolean print = round == 1;
+                report(print, "MyHashTable0", size, fixedHashTable(keys, probes));
+                report(print, "MyHashTable", size, myHashTable(keys, probes));
+                report(print, "HashMap", size, hashMap(keys, probes));
+                report(print, "IntIntMap", size, intIntMap(keys, probes));
+            }
+        }
+        if (blackhole == 42) System.out.println();
+    }
+
+    private static void report(boolean print, String name, int size, double[] result) {
+        if (print) System.out.printf("%-12s %8d %10.1f %10.1f %10.2f%n", name, size, result[0], result[1], result[2]);
+    }
+
+    private static int builds(int size) {
+        return Math.max(1, OPERATIONS / size);
+    }
+
+    // Chains grow to size / 100, so large sizes get one build and fewer lookups to stay in seconds.
+    private static double[] fixedHashTable(int[] keys, int[] probes) {
+        boolean large = keys.length > 1_000;
+        int builds = large ? 1 : builds(keys.length);
+        int lookups = large ? probes.length / 100 : probes.length;
+        FixedHashTable<Integer, Integer> table = null;
+        long start = System.nanoTime();
+        for (int b = 0; b < builds; b++) {
+            table = new FixedHashTable<>();
+            for (int key : keys) table.put(key, key);
+        }
+        double put = (double) (System.nanoTime() - start) / ((long) builds * keys.length);
+
+        long sum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) sum += table.get(probes[i]);
+        double get = (double) (System.nanoTime() - start) / lookups;
+
+        long total = 0;
+        start = System.nanoTime();
+        for (int b = 0; b < builds; b++) {
+            for (FixedHashTable.Entry<Integer, Integer> e : table.getAllEntries()) total += e.value;
+        }
+        double iterate = (double) (System.nanoTime() - start) / ((long) builds * keys.length);
+        blackhole += sum + total;
+        return new double[]{put, get, iterate};
+    }
+
+    private static double[] myHashTable(int[] keys, int[] probes) {
+        int builds = builds(keys.length);
+        MyHashTable<Integer, Integer> table = null;
+        long start = System.nanoTime();
+        for (int b = 0; b < builds; b++) {
+            table = new MyHashTable<>();
+            for (int key : keys) table.put(key, key);
+        }
+        double put = (double) (System.nanoTime() - start) / ((long) builds * keys.length);
+
+        long sum = 0;
+        start = System.nanoTime();
+        for (int key : probes) sum += table.get(key);
+        double get = (double) (System.nanoTime() - start) / probes.length;
+
+        long[] total = {0};
+        start = System.nanoTime();
+        for (int b = 0; b < builds; b++) table.forEach((k, v) -> total[0] += v);
+        double iterate = (double) (System.nanoTime() - start) / ((long) builds * keys.length);
+        blackhole += sum + total[0];
+        return new double[]{put, get, iterate};
+    }
+
+    private static double[] hashMap(int[] keys, int[] probes) {
+        int builds = builds(keys.length);
+        Map<Integer, Integer> table = null;
+        long start = System.nanoTime();
+        for (int b = 0; b < builds; b++) {
+            table = new HashMap<>();
+            for (int key : keys) table.put(key, key);
+        }
+        double put = (double) (System.nanoTime() - start) / ((long) builds * keys.length);
+
+        long sum = 0;
+        start = System.nanoTime();
+        for (int key : probes) sum += table.get(key);
+        double get = (double) (System.nanoTime() - start) / probes.length;
+
+        long total = 0;
+        start = System.nanoTime();
+        for (int b = 0; b < builds; b++) {
+            for (int v : table.values()) total += v;
+        }
+        double iterate = (double) (System.nanoTime() - start) / ((long) builds * keys.length);
+        blackhole += sum + total;
+        return new double[]{put, get, iterate};
+    }
+
+    private static double[] intIntMap(int[] keys, int[] probes) {
+        int builds = builds(keys.length);
+        IntIntMap table = null;
+        long start = System.nanoTime();
+        for (int b = 0; b < builds; b++) {
+            table = new IntIntMap();
+            for (int key : keys) table.put(key, key);
+        }
+        double put = (double) (System.nanoTime() - start) / ((long) builds * keys.length);
+
+        long sum = 0;
+        start = System.nanoTime();
+        for (int key : probes) sum += table.get(key, 0);
+        double get = (double) (System.nanoTime() - start) / probes.length;
+
+        long total = 0;
+        start = System.nanoTime();
+        for (int b = 0; b < builds; b++) {
+            for (int s = table.nextSlot(-1); s >= 0; s = table.nextSlot(s)) total += table.valueAt(s);
+        }
+        double iterate = (double) (System.nanoTime() - start) / ((long) builds * keys.length);
+        blackhole += sum + total;
+        return new double[]{put, get, iterate};
+    }
+
+    /** MyHashTable as it was before it could resize. */
+    private static class FixedHashTable<K, V> {
+        private static final int CAPACITY = 100;
+        private final Entry<K, V>[] table;
+        private int size = 0;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        FixedHashTable() {
+            table = new Entry[CAPACITY];
+        }
+
+        static class Entry<K, V> {
+            final K key;
+            V value;
+            Entry<K, V> next;
+
+            Entry(K key, V value) {
+                this.key = key;
+                this.value = value;
+            }
+        }
+
+        private int hash(K key) {
+            return Math.abs(key.hashCode()) % CAPACITY;
+        }
+
+        void put(K key, V value) {
+            int index = hash(key);
+            if (table[index] == null) {
+                table[index] = new Entry<>(key, value);
+                size++;
+            } else {
+                Entry<K, V> current = table[index];
+                while (true) {
+                    if (current.key.equals(key)) {
+                        current.value = value;
+                        return;
+                    }
+                    if (current.next == null) break;
+                    current = current.next;
+                }
+                current.next = new Entry<>(key, value);
+                size++;
+            }
+        }
+
+        V get(K key) {
+            Entry<K, V> current = table[hash(key)];
+            while (current != null) {
+                if (current.key.equals(key)) return current.value;
+                current = current.next;
+            }
+            return null;
+        }
+
+        Entry<K, V>[] getAllEntries() {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Entry<K, V>[] all = new Entry[size];
+            int j = 0;
+            for (int i = 0; i < CAPACITY; i++) {
+                for (Entry<K, V> current = table[i]; current != null; current = current.next) {
+                    all[j++] = current;
+                }
+            }
+            return all;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ir.monopoly.server.benchmark;
+
+import ir.monopoly.server.game.GameBroadcaster;
+import ir.monopoly.server.game.GameController;
+import ir.monopoly.server.game.GameInitializer;
+import ir.monopoly.server.game.GameState;
+import ir.monopoly.server.persistence.FsyncPolicy;
+import ir.monopoly.server.persistence.GameJournal;
+import ir.monopoly.server.persistence.JournalReader;
+import ir.monopoly.server.persistence.JournalRecorder;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.player.PlayerStatus;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays the same seeded, scripted games through GameController without a journal and
+ * with one per fsync policy, and reports the added cost per command plus what the
+ * journal wrote. Finally reads the journal back to measure the replay scan rate.
+ * Usage: JournalBenchmark [games]
+ */
+public class JournalBenchmark {
+    private static final int PLAYERS = 4;
+    private static final int MAX_TURNS = 300;
+    private static final GameBroadcaster NO_OUTPUT = new GameBroadcaster() {
+        @Override
+        public void broadcast(String message) {
+        }
+
+        @Override
+        public void sendToPlayer(int playerId, String message) {
+        }
+
+        @Override
+        public void sendToPlayer(int playerId, byte[] line) {
+        }
+    };
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        Path file = Files.createTempFile("monopoly-journal", ".bin");
+
+        run(games, null);
+        double baseline = run(games, null);
+        System.out.printf("no journal: %.0f ns/command%n", baseline);
+
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            Files.deleteIfExists(file);
+            GameJournal journal = GameJournal.open(file, policy);
+            double journaled = run(games, journal);
+            journal.close();
+
+            long records = journal.getRecordCount();
+            System.out.printf("%-8s %.0f ns/command (+%.2f us) records=%d bytes=%d frames=%d fsyncs=%d%n",
+                    policy, journaled, (journaled - baseline) / 1000, records, journal.getBytesWritten(),
+                    journal.getFrameCount(), journal.getFsyncCount());
+        }
+
+        long start = System.nanoTime();
+        long records = 0;
+        try (JournalReader reader = new JournalReader(file)) {
+            while (reader.next()) records++;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("replay scan: %d records in %.3fs (%.0f records/s)%n", records, seconds, records / seconds);
+        Files.deleteIfExists(file);
+    }
+
+    /** Returns the average wall time per command in nanoseconds. */
+    private static double run(int games, GameJournal journal) {
+        long commands = 0;
+        long start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            List<Player> players = new ArrayList<>();
+            for (int id = 1; id <= PLAYERS; id++) players.add(new Player(id, "Player " + id, 1500));
+            GameState gs = GameInitializer.initializeGame(players, false, g);
+            GameController controller = new GameController(gs, NO_OUTPUT);
+            if (journal != null) {
+                journal.roomCreated(g, g, new int[]{1, 2, 3, 4});
+                gs.setRecorder(new JournalRecorder(journal, g));
+            }
+
+            for (int turn = 0; turn < MAX_TURNS && gs.getTurnManager().getTurnCounter() <= MAX_TURNS; turn++) {
+                if (activePlayers(gs) <= 1) break;
+                int id = gs.getTurnManager().getCurrentPlayer().getPlayerId();
+                commands += command(controller, journal, g, id, "ROLL");
+                commands += command(controller, journal, g, id, "BUY");
+                for (Player p : gs.getPlayers()) {
+                    if (gs.isAuctionActive()) commands += command(controller, journal, g, p.getPlayerId(), "PASS");
+                }
+                commands += command(controller, journal, g, gs.getTurnManager().getCurrentPlayer().getPlayerId(), "END_TURN");
+            }
+        }
+        if (journal != null) journal.sync();
+        return (double) (System.nanoTime() - start) / commands;
+    }
+
+    private static int command(GameController controller, GameJournal journal, int roomId, int playerId, String line) {
+        if (journal != null) journal.command(roomId, playerId, line);
+        controller.handleCommand(line, playerId, "");
+        return 1;
+    }
+
+    private static int activePlayers(GameState gs) {
+        int active = 0;
+        for (Player p : gs.getPlayers()) {
+            if (p.getStatus() != PlayerStatus.BANKRUPT) active++;
+        }
+        return active;
+    }
+}
@@ -0,0 +1,44 @@
+package ir.monopoly.server.benchmark;
+
+import ir.monopoly.server.simulation.CashReservePolicy;
+import ir.monopoly.server.simulation.GreedyPolicy;
+import ir.monopoly.server.simulation.ParallelSimulation;
+import ir.monopoly.server.simulation.PlayerPolicy;
+import ir.monopoly.server.simulation.SimulationStats;
+
+/**
+ * Plays the same seeded batch of headless games on one thread and on N threads,
+ * reports games per second / per hour for both and checks the merged statistics
+ * are identical.
+ * Usage: SimulationBenchmark [games] [threads] [seed]
+ * Seats 1 and 3 play greedy, seats 2 and 4 keep a $200 reserve.
+ */
+public class SimulationBenchmark {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+
+        PlayerPolicy[] policies = {
+                new GreedyPolicy(), new CashReservePolicy(200), new GreedyPolicy(), new CashReservePolicy(200)
+        };
+        ParallelSimulation simulation = new ParallelSimulation(policies);
+        simulation.run(Math.min(games, 10_000), seed + 1, threads);
+
+        SimulationStats single = timed(simulation, games, seed, 1);
+        SimulationStats parallel = timed(simulation, games, seed, threads);
+
+        System.out.print(parallel.report());
+        System.out.println("identical across thread counts: " + single.equals(parallel));
+    }
+
+    private static SimulationStats timed(ParallelSimulation simulation, int games, long seed, int threads) {
+        long start = System.nanoTime();
+        SimulationStats stats = simulation.run(games, seed, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("threads=%d games=%d time=%.2fs games/s=%.0f games/hour=%.0f%n",
+                threads, games, seconds, games / seconds, games / seconds * 3600);
+        return stats;
+    }
+}
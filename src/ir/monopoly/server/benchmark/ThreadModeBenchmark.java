@@ -0,0 +1,149 @@
+package ir.monopoly.server.benchmark;
+
+import ir.monopoly.server.network.GameServer;
+import ir.monopoly.server.network.TransportMode;
+import ir.monopoly.shared.ExecutionMode;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds N simulated connections open against the blocking transport, once with
+ * platform threads and once with virtual threads, and reports the memory the
+ * connections cost plus p50/p99 command round-trip latency.
+ * Clients always run on virtual threads so only the server side differs.
+ * Usage: ThreadModeBenchmark [connections] [commandsPerConnection]
+ * Each connection uses two file descriptors in this process; raise ulimit -n for 10k.
+ */
+public class ThreadModeBenchmark {
+    private static final int BASE_PORT = 18180;
+    private static final int ROOM_SIZE = 4;
+    private static final String COMMAND = "BID 0";
+
+    public static void main(String[] args) throws Exception {
+        int requested = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int connections = Math.max(ROOM_SIZE, requested - requested % ROOM_SIZE);
+        int commandsPerConnection = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        console.println("connections=" + connections + " commandsPerConnection=" + commandsPerConnection);
+        int port = BASE_PORT;
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            Result r = run(mode, port++, connections, commandsPerConnection);
+            console.printf("%-8s liveThreads=%d rssDelta=%dMB heapDelta=%dMB p50=%.2fms p99=%.2fms max=%.2fms%n",
+                    mode, r.liveThreads, r.rssDeltaKb / 1024, r.heapDeltaBytes / (1024 * 1024),
+                    r.p50Nanos / 1e6, r.p99Nanos / 1e6, r.maxNanos / 1e6);
+        }
+    }
+
+    private static Result run(ExecutionMode mode, int port, int connections, int commandsPerConnection) throws Exception {
+        System.gc();
+        long rssBefore = readRssKb();
+        long heapBefore = usedHeap();
+
+        GameServer server = new GameServer(port, ROOM_SIZE, TransportMode.BLOCKING, mode);
+        Thread serverThread = new Thread(server::startServer, "benchmark-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+
+        Socket[] sockets = new Socket[connections];
+        BufferedReader[] readers = new BufferedReader[connections];
+        PrintWriter[] writers = new PrintWriter[connections];
+        for (int i = 0; i < connections; i++) {
+            sockets[i] = connectWithRetry(port);
+            readers[i] = new BufferedReader(new InputStreamReader(sockets[i].getInputStream()));
+            writers[i] = new PrintWriter(sockets[i].getOutputStream(), true);
+        }
+        for (BufferedReader reader : readers) {
+            awaitType(reader, "TURN_UPDATE");
+        }
+
+        System.gc();
+        long rssDelta = readRssKb() - rssBefore;
+        long heapDelta = usedHeap() - heapBefore;
+        int liveThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        long[] latencies = new long[connections * commandsPerConnection];
+        CountDownLatch done = new CountDownLatch(connections);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                int client = i;
+                clients.execute(() -> {
+                    try {
+                        for (int c = 0; c < commandsPerConnection; c++) {
+                            long start = System.nanoTime();
+                            writers[client].println(COMMAND);
+                            awaitType(readers[client], "ERROR");
+                            latencies[client * commandsPerConnection + c] = System.nanoTime() - start;
+                        }
+                    } catch (IOException ignored) {
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        }
+
+        for (Socket socket : sockets) socket.close();
+        server.stop();
+
+        Arrays.sort(latencies);
+        return new Result(liveThreads, rssDelta, heapDelta,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[latencies.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static long readRssKb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return 0;
+    }
+
+    private static Socket connectWithRetry(int port) throws IOException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return new Socket("localhost", port);
+            } catch (ConnectException e) {
+                if (attempt > 100) throw e;
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private static void awaitType(BufferedReader reader, String type) throws IOException {
+        String marker = "\"type\":\"" + type + "\"";
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.contains(marker)) return;
+        }
+        throw new EOFException("Server closed the connection while waiting for " + type);
+    }
+
+    private record Result(int liveThreads, long rssDeltaKb, long heapDeltaBytes,
+                          long p50Nanos, long p99Nanos, long maxNanos) {}
+}
@@ -0,0 +1,120 @@
+package ir.monopoly.server.benchmark;
+
+import ir.monopoly.server.network.GameServer;
+import ir.monopoly.server.network.TransportMode;
+import ir.monopoly.shared.ExecutionMode;
+import java.io.*;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opens N client sockets against an in-process GameServer, which seats them in rooms
+ * of four, and has every client fire request/response commands as fast as the server
+ * answers them.
+ * Usage: TransportLoadTest [connections] [commandsPerConnection]
+ */
+public class TransportLoadTest {
+    private static final int BASE_PORT = 18080;
+    private static final int ROOM_SIZE = 4;
+    private static final String COMMAND = "BID 0";
+
+    public static void main(String[] args) throws Exception {
+        int requested = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int connections = Math.max(ROOM_SIZE, requested - requested % ROOM_SIZE);
+        int commandsPerConnection = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        console.println("connections=" + connections + " commandsPerConnection=" + commandsPerConnection);
+        int port = BASE_PORT;
+        for (TransportMode mode : TransportMode.values()) {
+            Result result = run(mode, port++, connections, commandsPerConnection);
+            console.printf("%-8s connections=%d rooms=%d serverThreads=%d commands=%d elapsed=%dms throughput=%.0f cmd/s%n",
+                    mode, result.connections, result.connections / ROOM_SIZE, result.serverThreads, result.commands,
+                    result.elapsedNanos / 1_000_000, result.commands * 1e9 / result.elapsedNanos);
+        }
+    }
+
+    private static Result run(TransportMode mode, int port, int connections, int commandsPerConnection) throws Exception {
+        int threadsBefore = Thread.activeCount();
+        GameServer server = new GameServer(port, ROOM_SIZE, mode, ExecutionMode.PLATFORM);
+        Thread serverThread = new Thread(server::startServer, "load-test-server");
+        serverThread.setDaemon(true);
+        serverThread.start();
+
+        List<Socket> sockets = new ArrayList<>();
+        List<BufferedReader> readers = new ArrayList<>();
+        List<PrintWriter> writers = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            Socket socket = connectWithRetry(port);
+            sockets.add(socket);
+            readers.add(new BufferedReader(new InputStreamReader(socket.getInputStream())));
+            writers.add(new PrintWriter(socket.getOutputStream(), true));
+        }
+
+        for (BufferedReader reader : readers) {
+            awaitType(reader, "TURN_UPDATE");
+        }
+        int serverThreads = Thread.activeCount() - threadsBefore;
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(connections);
+        AtomicLong completed = new AtomicLong();
+        for (int i = 0; i < connections; i++) {
+            BufferedReader reader = readers.get(i);
+            PrintWriter writer = writers.get(i);
+            Thread client = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int c = 0; c < commandsPerConnection; c++) {
+                        writer.println(COMMAND);
+                        awaitType(reader, "ERROR");
+                        completed.incrementAndGet();
+                    }
+                } catch (Exception ignored) {
+                } finally {
+                    done.countDown();
+                }
+            });
+            client.setDaemon(true);
+            client.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        for (Socket socket : sockets) socket.close();
+        server.stop();
+
+        return new Result(connections, serverThreads, completed.get(), elapsed);
+    }
+
+    private static Socket connectWithRetry(int port) throws IOException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return new Socket("localhost", port);
+            } catch (ConnectException e) {
+                if (attempt > 100) throw e;
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private static void awaitType(BufferedReader reader, String type) throws IOException {
+        String marker = "\"type\":\"" + type + "\"";
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.contains(marker)) return;
+        }
+        throw new EOFException("Server closed the connection while waiting for " + type);
+    }
+
+    private record Result(int connections, int serverThreads, long commands, long elapsedNanos) {}
+}
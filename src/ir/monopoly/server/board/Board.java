@@ -1,56 +1,147 @@
 package ir.monopoly.server.board;
 
 import ir.monopoly.server.datastructure.MyHashTable;
+import ir.monopoly.server.property.Property;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
+/**
+ * Immutable board layout indexed by position; a tile's id is its position. Per-tile
+ * metadata (type, property group, tax, the Property itself) sits in parallel arrays built
+ * once by the Builder, and names are indexed case-insensitively; a name several
+ * tiles share ("Station") does not resolve. Any size works as long as there is a JAIL tile; the first one is
+ * the jail, later JAIL tiles send players there.
+ */
 public class Board {
-    private Tile head;
-    private Tile tail;
-    private int size = 0;
-    private final MyHashTable<Integer, Tile> tileMap;
-
-    public Board() {
-        this.tileMap = new MyHashTable<>();
-    }
-
-    public void addTile(Tile tile) {
-        tileMap.put(tile.getTileId(), tile);
-
-        if (head == null) {
-            head = tile;
-            tail = tile;
-            tile.setNext(head);
-        } else {
-            tail.setNext(tile);
-            tail = tile;
-            tail.setNext(head);
+    public static final int NO_GROUP = -1;
+    public static final int DEFAULT_TAX = 100;
+
+    private final Tile[] tiles;
+    private final byte[] typeOrdinals;
+    private final byte[] groupOrdinals;
+    private final boolean[] chance;
+    private final int[] taxes;
+    private final Property[] properties;
+    private final MyHashTable<String, Integer> nameIndex;
+    private final int jailPosition;
+
+    private Board(Tile[] tiles, int[] taxes) {
+        this.tiles = tiles;
+        this.taxes = taxes;
+        this.typeOrdinals = new byte[tiles.length];
+        this.groupOrdinals = new byte[tiles.length];
+        this.chance = new boolean[tiles.length];
+        this.properties = new Property[tiles.length];
+        this.nameIndex = new MyHashTable<>();
+        int jail = -1;
+        for (int id = 0; id < tiles.length; id++) {
+            Tile tile = tiles[id];
+            typeOrdinals[id] = (byte) tile.getTileType().ordinal();
+            groupOrdinals[id] = NO_GROUP;
+            chance[id] = tile.getTileType() == TileType.CARD && tile.getName().contains("Chance");
+            if (tile.getTileData() instanceof Property property) {
+                properties[id] = property;
+                groupOrdinals[id] = (byte) property.getGroup().ordinal();
+            }
+            String key = key(tile.getName());
+            nameIndex.put(key, nameIndex.get(key) == null ? id : -1);
+            if (jail < 0 && tile.getTileType() == TileType.JAIL) jail = id;
+        }
+        this.jailPosition = jail;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private final List<Tile> tiles = new ArrayList<>();
+        private final List<Integer> taxes = new ArrayList<>();
+
+        /** Tiles must be added in board order, each with its position as id. A TAX tile charges DEFAULT_TAX. */
+        public Builder add(Tile tile) {
+            return addTax(tile, tile.getTileType() == TileType.TAX ? DEFAULT_TAX : 0);
+        }
+
+        /** Adds a TAX tile that charges amount. */
+        public Builder addTax(Tile tile, int amount) {
+            if (tile.getTileId() != tiles.size()) {
+                throw new IllegalArgumentException("Tile " + tile.getName() + " has id " + tile.getTileId() +
+                        " but is at position " + tiles.size());
+            }
+            if (amount != 0 && tile.getTileType() != TileType.TAX) {
+                throw new IllegalArgumentException("Tile " + tile.getName() + " is not a TAX tile");
+            }
+            tiles.add(tile);
+            taxes.add(amount);
+            return this;
+        }
+
+        public Board build() {
+            if (tiles.isEmpty()) throw new IllegalStateException("A board needs at least one tile");
+            if (tiles.stream().noneMatch(t -> t.getTileType() == TileType.JAIL)) {
+                throw new IllegalStateException("A board needs a JAIL tile");
+            }
+            return new Board(tiles.toArray(new Tile[0]), taxes.stream().mapToInt(Integer::intValue).toArray());
         }
-        size++;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
     }
 
     public Tile getTileAt(int id) {
-        return tileMap.get(id);
+        return id >= 0 && id < tiles.length ? tiles[id] : null;
+    }
+
+    /** The property on the tile, or null for any other tile or position. */
+    public Property getProperty(int id) {
+        return id >= 0 && id < properties.length ? properties[id] : null;
+    }
+
+    /** The tile's TileType ordinal. */
+    public int getTypeOrdinal(int id) {
+        return typeOrdinals[id];
+    }
+
+    /** True for a CARD tile that draws from the Chance pile rather than Community Chest. */
+    public boolean isChance(int id) {
+        return chance[id];
     }
 
-    public Tile getHead() {
-        return head;
+    /** What landing on the tile charges; 0 for anything but a TAX tile. */
+    public int getTax(int id) {
+        return taxes[id];
+    }
+
+    /** The tile's ColorGroup ordinal, or NO_GROUP. */
+    public int getGroupOrdinal(int id) {
+        return groupOrdinals[id];
     }
 
     public int getSize() {
-        return size;
+        return tiles.length;
     }
 
-    public Tile findTileByName(String name) {
-        MyHashTable.Entry<Integer, Tile>[] allEntries = tileMap.getAllEntries();
-        for (MyHashTable.Entry<Integer, Tile> entry : allEntries) {
-            Tile t = entry.getValue();
-            if (t.getName().equalsIgnoreCase(name)) {
-                return t;
-            }
-        }
-        return null;
+    /** Where jailed players sit. */
+    public int getJailPosition() {
+        return jailPosition;
+    }
+
+    /** Position after moving steps forward, wrapping past the last tile. */
+    public int advance(int position, int steps) {
+        return Math.floorMod(position + steps, tiles.length);
+    }
+
+    /** Position of the only tile with the name, ignoring case, or -1 when none or several carry it. */
+    public int indexOf(String name) {
+        Integer id = nameIndex.get(key(name));
+        return id == null ? -1 : id;
     }
 
-    public MyHashTable.Entry<Integer, Tile>[] getAllTiles() {
-        return tileMap.getAllEntries();
+    /** Tiles in board order. */
+    public Tile[] getAllTiles() {
+        return tiles.clone();
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,16 @@
 package ir.monopoly.server.board;
 
-
 public class Tile {
     private final int tileId;
     private final TileType tileType;
     private final String name;
-    private Object tileData;
-    private Tile next;
+    private final Object tileData;
 
     public Tile(int tileId, TileType tileType, String name) {
         this.tileId = tileId;
         this.tileType = tileType;
         this.name = name;
+        this.tileData = null;
     }
 
     public Tile(int tileId, TileType tileType, Object tileData) {
@@ -40,16 +39,4 @@ public class Tile {
     public Object getTileData() {
         return tileData;
     }
-
-    public void setTileData(Object tileData) {
-        this.tileData = tileData;
-    }
-
-    public Tile getNext() {
-        return next;
-    }
-
-    public void setNext(Tile next) {
-        this.next = next;
-    }
 }
@@ -0,0 +1,159 @@
+package ir.monopoly.server.datastructure;
+
+/**
+ * Open-addressing map from int keys to int values with linear probing, backward-shift
+ * removal and slot iteration. Missing keys read as the default passed to get().
+ */
+public class IntIntMap {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size = 0;
+    private int threshold;
+    private boolean hasZeroKey = false;
+    private int zeroValue;
+
+    public IntIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntIntMap(int expectedSize) {
+        allocate(MyHashTable.tableSizeFor((int) (expectedSize / LOAD_FACTOR) + 1));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int find(int key) {
+        int slot = MyHashTable.spread(key) & mask;
+        while (true) {
+            int k = keys[slot];
+            if (k == key) return slot;
+            if (k == 0) return -1;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int get(int key, int defaultValue) {
+        if (key == 0) return hasZeroKey ? zeroValue : defaultValue;
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : find(key) >= 0;
+    }
+
+    public void put(int key, int value) {
+        if (key == 0) {
+            if (!hasZeroKey) size++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int slot = insertionSlot(key);
+        values[slot] = value;
+    }
+
+    /** Adds delta to the value of key (0 if absent) and returns the new value. */
+    public int addTo(int key, int delta) {
+        if (key == 0) {
+            if (!hasZeroKey) size++;
+            hasZeroKey = true;
+            return zeroValue += delta;
+        }
+        int slot = insertionSlot(key);
+        return values[slot] += delta;
+    }
+
+    /** Slot holding key, claimed with value 0 if the key was absent. */
+    private int insertionSlot(int key) {
+        int slot = MyHashTable.spread(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        if (size + 1 > threshold) {
+            rehash(keys.length * 2);
+            return insertionSlot(key);
+        }
+        keys[slot] = key;
+        values[slot] = 0;
+        size++;
+        return slot;
+    }
+
+    public boolean remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) return false;
+            hasZeroKey = false;
+            zeroValue = 0;
+            size--;
+            return true;
+        }
+        int slot = find(key);
+        if (slot < 0) return false;
+        shiftKeys(slot);
+        size--;
+        return true;
+    }
+
+    private void shiftKeys(int free) {
+        int slot = free;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int k = keys[slot];
+            if (k == 0) break;
+            int home = MyHashTable.spread(k) & mask;
+            boolean canMove = free <= slot ? (home <= free || home > slot) : (home <= free && home > slot);
+            if (canMove) {
+                keys[free] = k;
+                values[free] = values[slot];
+                free = slot;
+            }
+        }
+        keys[free] = 0;
+        values[free] = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int k = oldKeys[i];
+            if (k == 0) continue;
+            int slot = MyHashTable.spread(k) & mask;
+            while (keys[slot] != 0) slot = (slot + 1) & mask;
+            keys[slot] = k;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    /** Next occupied slot after the given one (start with -1); -1 when there are no more. */
+    public int nextSlot(int slot) {
+        for (int s = slot + 1; s < keys.length; s++) {
+            if (keys[s] != 0) return s;
+        }
+        return slot < keys.length && hasZeroKey ? keys.length : -1;
+    }
+
+    public int keyAt(int slot) {
+        return slot == keys.length ? 0 : keys[slot];
+    }
+
+    public int valueAt(int slot) {
+        return slot == keys.length ? zeroValue : values[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+}
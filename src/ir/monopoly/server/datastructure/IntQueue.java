@@ -0,0 +1,72 @@
+package ir.monopoly.server.datastructure;
+
+/**
+ * FIFO queue of int values: a fixed-capacity ring buffer of primitives, so enqueue,
+ * dequeue and rotate never box or allocate.
+ */
+public class IntQueue {
+    private final int[] items;
+    private int head;
+    private int size;
+
+    public IntQueue(int capacity) {
+        this.items = new int[capacity];
+    }
+
+    public void enqueue(int item) {
+        if (size == items.length) {
+            throw new IllegalStateException("Queue is full (capacity " + items.length + ")");
+        }
+        items[slot(size)] = item;
+        size++;
+    }
+
+    /** Throws when the queue is empty; there is no spare int to return instead. */
+    public int dequeue() {
+        int data = peek();
+        head = slot(1);
+        size--;
+        return data;
+    }
+
+    public int peek() {
+        if (isEmpty()) throw new IllegalStateException("Queue is empty");
+        return items[head];
+    }
+
+    /** Moves the head item to the tail and returns it. */
+    public int rotate() {
+        int data = peek();
+        if (size < items.length) items[slot(size)] = data;
+        head = slot(1);
+        return data;
+    }
+
+    /** The item at the given distance from the head. */
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return items[slot(index)];
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private int slot(int offset) {
+        int slot = head + offset;
+        return slot >= items.length ? slot - items.length : slot;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+}
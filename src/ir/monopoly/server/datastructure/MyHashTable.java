@@ -1,23 +1,43 @@
 package ir.monopoly.server.datastructure;
 
+import java.util.function.BiConsumer;
+
+/**
+ * Chained hash table that doubles its bucket array once size exceeds the load factor.
+ * For int keys to int values prefer IntIntMap, which avoids boxing and entry nodes.
+ */
 public class MyHashTable<K, V> {
-    private static final int CAPACITY = 100;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
     private Entry<K, V>[] table;
     private int size = 0;
+    private int threshold;
 
-    @SuppressWarnings("unchecked")
     public MyHashTable() {
-        table = new Entry[CAPACITY];
+        this(DEFAULT_CAPACITY);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public MyHashTable(int expectedSize) {
+        int capacity = tableSizeFor((int) (expectedSize / LOAD_FACTOR) + 1);
+        table = new Entry[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
     }
 
     public static class Entry<K, V> {
         K key;
         V value;
         Entry<K, V> next;
+        final int hash;
 
         public Entry(K key, V value) {
+            this(key, value, spread(key.hashCode()));
+        }
+
+        Entry(K key, V value, int hash) {
             this.key = key;
             this.value = value;
+            this.hash = hash;
         }
 
         public K getKey() { return key; }
@@ -25,36 +45,37 @@ public class MyHashTable<K, V> {
         public void setValue(V value) { this.value = value; }
     }
 
-    private int hash(K key) {
-        return Math.abs(key.hashCode()) % CAPACITY;
+    static int tableSizeFor(int n) {
+        int capacity = 1;
+        while (capacity < n) capacity <<= 1;
+        return capacity;
+    }
+
+    /** Mixes the high bits into the low ones, which pick the bucket. */
+    static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
     }
 
     public void put(K key, V value) {
-        int index = hash(key);
-        if (table[index] == null) {
-            table[index] = new Entry<>(key, value);
-            size++;
-        } else {
-            Entry<K, V> current = table[index];
-            while (true) {
-                if (current.key.equals(key)) {
-                    current.value = value;
-                    return;
-                }
-                if (current.next == null) break;
-                current = current.next;
+        int hash = spread(key.hashCode());
+        int index = hash & (table.length - 1);
+        for (Entry<K, V> current = table[index]; current != null; current = current.next) {
+            if (current.hash == hash && current.key.equals(key)) {
+                current.value = value;
+                return;
             }
-            current.next = new Entry<>(key, value);
-            size++;
         }
+        Entry<K, V> entry = new Entry<>(key, value, hash);
+        entry.next = table[index];
+        table[index] = entry;
+        if (++size > threshold) resize();
     }
 
     public V get(K key) {
-        int index = hash(key);
-        Entry<K, V> current = table[index];
-        while (current != null) {
-            if (current.key.equals(key)) return current.value;
-            current = current.next;
+        int hash = spread(key.hashCode());
+        for (Entry<K, V> current = table[hash & (table.length - 1)]; current != null; current = current.next) {
+            if (current.hash == hash && current.key.equals(key)) return current.value;
         }
         return null;
     }
@@ -63,15 +84,56 @@ public class MyHashTable<K, V> {
         return get(key) != null;
     }
 
+    public V remove(K key) {
+        int hash = spread(key.hashCode());
+        int index = hash & (table.length - 1);
+        Entry<K, V> previous = null;
+        for (Entry<K, V> current = table[index]; current != null; previous = current, current = current.next) {
+            if (current.hash == hash && current.key.equals(key)) {
+                if (previous == null) table[index] = current.next;
+                else previous.next = current.next;
+                size--;
+                return current.value;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void resize() {
+        Entry<K, V>[] old = table;
+        Entry<K, V>[] bigger = new Entry[old.length * 2];
+        int mask = bigger.length - 1;
+        for (Entry<K, V> head : old) {
+            Entry<K, V> current = head;
+            while (current != null) {
+                Entry<K, V> next = current.next;
+                int index = current.hash & mask;
+                current.next = bigger[index];
+                bigger[index] = current;
+                current = next;
+            }
+        }
+        table = bigger;
+        threshold = (int) (bigger.length * LOAD_FACTOR);
+    }
+
+    /** Visits every entry without allocating. */
+    public void forEach(BiConsumer<? super K, ? super V> visitor) {
+        for (Entry<K, V> head : table) {
+            for (Entry<K, V> current = head; current != null; current = current.next) {
+                visitor.accept(current.key, current.value);
+            }
+        }
+    }
+
     public Entry<K, V>[] getAllEntries() {
-        @SuppressWarnings("unchecked")
+        @SuppressWarnings({"unchecked", "rawtypes"})
         Entry<K, V>[] all = new Entry[size];
         int j = 0;
-        for (int i = 0; i < CAPACITY; i++) {
-            Entry<K, V> current = table[i];
-            while (current != null) {
+        for (Entry<K, V> head : table) {
+            for (Entry<K, V> current = head; current != null; current = current.next) {
                 all[j++] = current;
-                current = current.next;
             }
         }
         return all;
@@ -80,4 +142,4 @@ public class MyHashTable<K, V> {
     public int size() {
         return size;
     }
-}
\ No newline at end of file
+}
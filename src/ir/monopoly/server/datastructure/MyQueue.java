@@ -1,40 +0,0 @@
-package ir.monopoly.server.datastructure;
-
-public class MyQueue<T> {
-    private Node<T> head;
-    private Node<T> tail;
-    private int size;
-
-    private static class Node<T> {
-        T data;
-        Node<T> next;
-        Node(T data) { this.data = data; }
-    }
-
-    public void enqueue(T item) {
-        Node<T> newNode = new Node<>(item);
-        if (tail != null) {
-            tail.next = newNode;
-        }
-        tail = newNode;
-        if (head == null) {
-            head = newNode;
-        }
-        size++;
-    }
-
-    public T dequeue() {
-        if (isEmpty()) return null;
-        T data = head.data;
-        head = head.next;
-        if (head == null) {
-            tail = null;
-        }
-        size--;
-        return data;
-    }
-
-    public boolean isEmpty() {
-        return head == null;
-    }
-}
\ No newline at end of file
@@ -2,74 +2,147 @@ package ir.monopoly.server.datastructure;
 
 import ir.monopoly.server.player.Player;
 
+/**
+ * Max-heap of players by total wealth that stays alive for the whole game. Each
+ * player's wealth is cached next to its heap slot and its slot is tracked by player
+ * id, so update() re-ranks one player in O(log n) after their wealth changed, and
+ * topK() reads the leaders without disturbing the heap.
+ */
 public class PlayerMaxHeap {
     private Player[] heap;
+    private long[] wealth;
+    private final IntIntMap positions;
     private int size;
-    private int capacity;
+    private int[] candidates = new int[8];
 
     public PlayerMaxHeap(int capacity) {
-        this.capacity = capacity;
+        this.heap = new Player[Math.max(1, capacity)];
+        this.wealth = new long[heap.length];
+        this.positions = new IntIntMap(capacity);
         this.size = 0;
-        this.heap = new Player[capacity];
     }
 
-    private int getParent(int i) { return (i - 1) / 2; }
-    private int getLeftChild(int i) { return (2 * i) + 1; }
-    private int getRightChild(int i) { return (2 * i) + 2; }
+    private static int getParent(int i) { return (i - 1) / 2; }
+    private static int getLeftChild(int i) { return (2 * i) + 1; }
 
+    /** Adds the player, or re-ranks them if already present. */
     public void insert(Player player) {
-        if (size == capacity) return;
-
+        if (positions.containsKey(player.getPlayerId())) {
+            update(player);
+            return;
+        }
+        if (size == heap.length) grow();
         heap[size] = player;
-        int current = size;
+        wealth[size] = player.getTotalWealth();
+        positions.put(player.getPlayerId(), size);
         size++;
+        siftUp(size - 1);
+    }
 
-        while (current != 0 && getWealth(heap[current]) > getWealth(heap[getParent(current)])) {
-            swap(current, getParent(current));
-            current = getParent(current);
-        }
+    private void grow() {
+        Player[] biggerHeap = new Player[heap.length * 2];
+        long[] biggerWealth = new long[heap.length * 2];
+        System.arraycopy(heap, 0, biggerHeap, 0, size);
+        System.arraycopy(wealth, 0, biggerWealth, 0, size);
+        heap = biggerHeap;
+        wealth = biggerWealth;
     }
 
-    public Player extractMax() {
-        if (size <= 0) return null;
-        if (size == 1) {
-            size--;
-            return heap[0];
-        }
+    /** Re-reads the player's wealth and moves them up or down accordingly. */
+    public void update(Player player) {
+        int i = positions.get(player.getPlayerId(), -1);
+        if (i < 0) return;
+        long old = wealth[i];
+        wealth[i] = player.getTotalWealth();
+        if (wealth[i] > old) siftUp(i);
+        else if (wealth[i] < old) siftDown(i);
+    }
 
-        Player root = heap[0];
-        heap[0] = heap[size - 1];
+    public boolean remove(Player player) {
+        int i = positions.get(player.getPlayerId(), -1);
+        if (i < 0) return false;
+        positions.remove(player.getPlayerId());
         size--;
-        heapifyDown(0);
+        if (i != size) {
+            Player moved = heap[size];
+            move(size, i);
+            siftUp(i);
+            siftDown(positions.get(moved.getPlayerId(), i));
+        }
+        heap[size] = null;
+        return true;
+    }
 
+    public Player extractMax() {
+        if (size == 0) return null;
+        Player root = heap[0];
+        remove(root);
         return root;
     }
 
-    private void heapifyDown(int i) {
-        int left = getLeftChild(i);
-        int right = getRightChild(i);
-        int largest = i;
+    /**
+     * Copies the up to out.length wealthiest players into out, richest first, and
+     * returns how many were copied. Only the heap's top k levels' worth of slots are
+     * looked at (O(k^2) for small k, independent of size); the heap is not modified.
+     */
+    public int topK(Player[] out) {
+        int k = Math.min(out.length, size);
+        if (k == 0) return 0;
+        if (candidates.length < 2 * k + 1) candidates = new int[2 * k + 1];
+
+        int count = 0;
+        candidates[count++] = 0;
+        for (int n = 0; n < k; n++) {
+            int best = 0;
+            for (int c = 1; c < count; c++) {
+                if (wealth[candidates[c]] > wealth[candidates[best]]) best = c;
+            }
+            int slot = candidates[best];
+            candidates[best] = candidates[--count];
+            out[n] = heap[slot];
+            int left = getLeftChild(slot);
+            if (left < size) candidates[count++] = left;
+            if (left + 1 < size) candidates[count++] = left + 1;
+        }
+        return k;
+    }
 
-        if (left < size && getWealth(heap[left]) > getWealth(heap[largest])) largest = left;
-        if (right < size && getWealth(heap[right]) > getWealth(heap[largest])) largest = right;
+    private void siftUp(int i) {
+        while (i > 0 && wealth[i] > wealth[getParent(i)]) {
+            swap(i, getParent(i));
+            i = getParent(i);
+        }
+    }
 
-        if (largest != i) {
+    private void siftDown(int i) {
+        while (true) {
+            int left = getLeftChild(i);
+            int largest = i;
+            if (left < size && wealth[left] > wealth[largest]) largest = left;
+            if (left + 1 < size && wealth[left + 1] > wealth[largest]) largest = left + 1;
+            if (largest == i) return;
             swap(i, largest);
-            heapifyDown(largest);
+            i = largest;
         }
     }
 
-    private void swap(int i, int j) {
-        Player temp = heap[i];
-        heap[i] = heap[j];
-        heap[j] = temp;
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        wealth[to] = wealth[from];
+        positions.put(heap[to].getPlayerId(), to);
     }
 
-    private int getWealth(Player p) {
-        return p.getTotalWealth();
+    private void swap(int i, int j) {
+        Player p = heap[i];
+        long w = wealth[i];
+        heap[i] = heap[j];
+        wealth[i] = wealth[j];
+        heap[j] = p;
+        wealth[j] = w;
+        positions.put(heap[i].getPlayerId(), i);
+        positions.put(heap[j].getPlayerId(), j);
     }
 
-
     public boolean isEmpty() {
         return size == 0;
     }
@@ -82,4 +155,4 @@ public class PlayerMaxHeap {
         if (size == 0) return null;
         return heap[0];
     }
-}
\ No newline at end of file
+}
@@ -1,92 +1,84 @@
 package ir.monopoly.server.datastructure;
 
 import ir.monopoly.server.property.Property;
-import java.util.ArrayList;
-import java.util.List;
-
+import java.util.function.Consumer;
+
+/**
+ * A player's properties as a bitset over property ids (tile ids) plus an array indexed
+ * by id. Insert, remove and lookup are O(1), size is maintained, and iteration visits
+ * properties in ascending id order without allocating. Iteration re-reads the bitset
+ * past the current id at every step, so properties may be removed (or added) while
+ * iterating; removed ones are not visited.
+ * Cursor form: for (int id = tree.nextId(0); id >= 0; id = tree.nextId(id + 1)) tree.get(id);
+ */
 public class PropertyTree {
-    private Node root;
-
-    private static class Node {
-        Property property;
-        Node left, right;
-        Node(Property property) { this.property = property; }
+    private long[] words = new long[1];
+    private Property[] byId = new Property[64];
+    private int size = 0;
+
+    /** Returns false if a property with the same id is already in the tree. */
+    public boolean insert(Property property) {
+        int id = property.getPropertyId();
+        ensureCapacity(id);
+        long bit = 1L << id;
+        if ((words[id >>> 6] & bit) != 0) return false;
+        words[id >>> 6] |= bit;
+        byId[id] = property;
+        size++;
+        return true;
     }
 
-    public void insert(Property property) {
-        root = insertRecursive(root, property);
+    private void ensureCapacity(int id) {
+        if (id < byId.length) return;
+        long[] moreWords = new long[(id >>> 6) + 1];
+        System.arraycopy(words, 0, moreWords, 0, words.length);
+        Property[] moreById = new Property[moreWords.length * 64];
+        System.arraycopy(byId, 0, moreById, 0, byId.length);
+        words = moreWords;
+        byId = moreById;
     }
 
-    private Node insertRecursive(Node current, Property property) {
-        if (current == null) return new Node(property);
-        if (property.getPropertyId() < current.property.getPropertyId())
-            current.left = insertRecursive(current.left, property);
-        else if (property.getPropertyId() > current.property.getPropertyId())
-            current.right = insertRecursive(current.right, property);
-        return current;
+    /** Returns the removed property, or null if it was not in the tree. */
+    public Property remove(int propertyId) {
+        if (!contains(propertyId)) return null;
+        words[propertyId >>> 6] &= ~(1L << propertyId);
+        Property removed = byId[propertyId];
+        byId[propertyId] = null;
+        size--;
+        return removed;
     }
 
-    public int countColorGroup(String colorGroup) {
-        return countRecursive(root, colorGroup);
+    public boolean contains(int propertyId) {
+        return propertyId >= 0 && propertyId < byId.length && (words[propertyId >>> 6] & (1L << propertyId)) != 0;
     }
 
-    private int countRecursive(Node current, String colorGroup) {
-        if (current == null) return 0;
-        int count = current.property.getColorGroup().equals(colorGroup) ? 1 : 0;
-        return count + countRecursive(current.left, colorGroup) + countRecursive(current.right, colorGroup);
+    public Property get(int propertyId) {
+        return propertyId >= 0 && propertyId < byId.length ? byId[propertyId] : null;
     }
 
-    public void forEach(java.util.function.Consumer<Property> action) {
-        List<Property> allProperties = new ArrayList<>();
-        collectAllProperties(root, allProperties);
-        for (Property prop : allProperties) {
-            action.accept(prop);
+    /** Smallest owned id that is >= fromId, or -1. */
+    public int nextId(int fromId) {
+        if (fromId >= byId.length) return -1;
+        int index = fromId >>> 6;
+        long word = words[index] & (-1L << fromId);
+        while (word == 0) {
+            if (++index == words.length) return -1;
+            word = words[index];
         }
+        return index * 64 + Long.numberOfTrailingZeros(word);
     }
 
-    private void collectAllProperties(Node current, List<Property> properties) {
-        if (current != null) {
-            collectAllProperties(current.left, properties);
-            properties.add(current.property);
-            collectAllProperties(current.right, properties);
+    public void forEach(Consumer<Property> action) {
+        for (int id = nextId(0); id >= 0; id = nextId(id + 1)) {
+            action.accept(byId[id]);
         }
     }
 
-    public void remove(int propertyId) {
-        root = removeRecursive(root, propertyId);
-    }
-
-    private Node removeRecursive(Node current, int propertyId) {
-        if (current == null) return null;
-
-        if (propertyId < current.property.getPropertyId()) {
-            current.left = removeRecursive(current.left, propertyId);
-        } else if (propertyId > current.property.getPropertyId()) {
-            current.right = removeRecursive(current.right, propertyId);
-        } else {
-            if (current.left == null) return current.right;
-            if (current.right == null) return current.left;
-
-            current.property = findSmallestValue(current.right);
-            current.right = removeRecursive(current.right, current.property.getPropertyId());
-        }
-        return current;
-    }
-
-    private Property findSmallestValue(Node root) {
-        return root.left == null ? root.property : findSmallestValue(root.left);
-    }
-
     public boolean isEmpty() {
-        return root == null;
+        return size == 0;
     }
 
     public int size() {
-        return countSize(root);
-    }
-
-    private int countSize(Node node) {
-        if (node == null) return 0;
-        return 1 + countSize(node.left) + countSize(node.right);
+        return size;
     }
-}
\ No newline at end of file
+}
@@ -1,42 +1,116 @@
 package ir.monopoly.server.datastructure;
 
-
+/**
+ * Ledger of money moved between players and between players and the bank (id 0).
+ * Ids are small and dense, so amounts live in a flat (n+1) x (n+1) long matrix indexed
+ * from * (n+1) + to, and per-id paid/received totals are kept as transactions arrive.
+ * Every query is O(1). Attached TransactionWindows see every transaction as well.
+ */
 public class TransactionGraph {
-    private final MyGraph graph;
+    public static final int BANK_ID = 0;
+
     private final int numPlayers;
+    private final int stride;
+    private final long[] amounts;
+    private final long[] paid;
+    private final long[] received;
+    private final long[] rentPaid;
+    private final long[] rentReceived;
+    private long version = 0;
+    private TransactionWindow[] windows = new TransactionWindow[0];
 
     public TransactionGraph(int numPlayers) {
         this.numPlayers = numPlayers;
-        this.graph = new MyGraph();
+        this.stride = numPlayers + 1;
+        this.amounts = new long[stride * stride];
+        this.paid = new long[stride];
+        this.received = new long[stride];
+        this.rentPaid = new long[stride];
+        this.rentReceived = new long[stride];
     }
 
-
     public void recordTransaction(int fromId, int toId, int amount) {
-        if (fromId > 0 && toId > 0 && fromId <= numPlayers && toId <= numPlayers && amount > 0) {
-            graph.addEdge(fromId, toId, amount);
+        if (isValid(fromId) && isValid(toId) && fromId != toId && amount > 0) {
+            amounts[fromId * stride + toId] += amount;
+            paid[fromId] += amount;
+            received[toId] += amount;
+            version++;
+            for (TransactionWindow window : windows) {
+                window.record(fromId, toId, amount);
+            }
         }
     }
 
-    public int getTotalPaidBy(int playerId) {
-        if (playerId < 1 || playerId > numPlayers) return 0;
-        int sum = 0;
-        for (int j = 1; j <= numPlayers; j++) {
-            sum += graph.getWeight(playerId, j);
+    /** A rent payment: recorded like any transaction, and per property in the windows. */
+    public void recordRent(int fromId, int toId, int propertyId, int amount) {
+        recordTransaction(fromId, toId, amount);
+        if (isValid(fromId) && isValid(toId) && fromId != toId && amount > 0) {
+            rentPaid[fromId] += amount;
+            rentReceived[toId] += amount;
+            for (TransactionWindow window : windows) {
+                window.recordRent(propertyId, amount);
+            }
         }
-        return sum;
     }
 
-    public int getTotalReceivedBy(int playerId) {
-        if (playerId < 1 || playerId > numPlayers) return 0;
-        int sum = 0;
-        for (int i = 1; i <= numPlayers; i++) {
-            sum += graph.getWeight(i, playerId);
-        }
-        return sum;
+    public void addWindow(TransactionWindow window) {
+        TransactionWindow[] more = new TransactionWindow[windows.length + 1];
+        System.arraycopy(windows, 0, more, 0, windows.length);
+        more[windows.length] = window;
+        windows = more;
     }
 
+    public TransactionWindow[] getWindows() {
+        return windows;
+    }
+
+    private boolean isValid(int id) {
+        return id >= 0 && id <= numPlayers;
+    }
+
+    public long getTotalPaidBy(int playerId) {
+        return isValid(playerId) ? paid[playerId] : 0;
+    }
+
+    public long getTotalReceivedBy(int playerId) {
+        return isValid(playerId) ? received[playerId] : 0;
+    }
+
+    public long getAmount(int fromId, int toId) {
+        return isValid(fromId) && isValid(toId) ? amounts[fromId * stride + toId] : 0;
+    }
+
+    /** Changes whenever a transaction is recorded. */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    public long getRentPaid(int playerId) {
+        return isValid(playerId) ? rentPaid[playerId] : 0;
+    }
+
+    public long getRentReceived(int playerId) {
+        return isValid(playerId) ? rentReceived[playerId] : 0;
+    }
+
+    /** Snapshot restore; the transactions themselves are restored with recordTransaction. */
+    public void restoreRent(int playerId, long paidTotal, long receivedTotal) {
+        if (!isValid(playerId)) return;
+        rentPaid[playerId] = paidTotal;
+        rentReceived[playerId] = receivedTotal;
+        version++;
+    }
+
+    /** Rent collected minus rent paid. */
+    public long getNetRent(int playerId) {
+        return isValid(playerId) ? rentReceived[playerId] - rentPaid[playerId] : 0;
+    }
 
-    public int getNetBalance(int playerId) {
+    public long getNetBalance(int playerId) {
         return getTotalReceivedBy(playerId) - getTotalPaidBy(playerId);
     }
-}
\ No newline at end of file
+}
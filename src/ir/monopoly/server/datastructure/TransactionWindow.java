@@ -0,0 +1,143 @@
+package ir.monopoly.server.datastructure;
+
+import java.util.Arrays;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolling-window view of a TransactionGraph: cash flow per player pair and rent
+ * received per property over the last N turns or the last T seconds. The window is a
+ * ring of buckets, one per turn or second, each holding that bucket's amounts; running
+ * window totals are updated on record and reduced by whole buckets as they expire.
+ * Recording is O(1) (plus bucket expiry when the clock has moved on), queries read the
+ * totals and never scan history.
+ */
+public class TransactionWindow {
+    private final String label;
+    private final int stride;
+    private final int buckets;
+    private final LongSupplier clock;
+    private final long[][] pairBuckets;
+    private final long[][] rentBuckets;
+    private final long[] pairTotals;
+    private final long[] rentTotals;
+    private long currentKey;
+
+    private TransactionWindow(String label, int numPlayers, int boardSize, int buckets, LongSupplier clock) {
+        this.label = label;
+        this.stride = numPlayers + 1;
+        this.buckets = buckets;
+        this.clock = clock;
+        this.pairBuckets = new long[buckets][stride * stride];
+        this.rentBuckets = new long[buckets][boardSize];
+        this.pairTotals = new long[stride * stride];
+        this.rentTotals = new long[boardSize];
+        this.currentKey = clock.getAsLong();
+    }
+
+    /** Covers the current turn and the turns - 1 before it. */
+    public static TransactionWindow lastTurns(int numPlayers, int boardSize, int turns, IntSupplier turnCounter) {
+        return new TransactionWindow("last " + turns + " turns", numPlayers, boardSize, turns, turnCounter::getAsInt);
+    }
+
+    /** Covers the current second and the seconds - 1 before it. */
+    public static TransactionWindow lastSeconds(int numPlayers, int boardSize, int seconds) {
+        return new TransactionWindow("last " + seconds + " seconds", numPlayers, boardSize, seconds,
+                () -> System.nanoTime() / 1_000_000_000L);
+    }
+
+    void record(int fromId, int toId, long amount) {
+        int slot = advance();
+        int pair = fromId * stride + toId;
+        pairBuckets[slot][pair] += amount;
+        pairTotals[pair] += amount;
+    }
+
+    void recordRent(int propertyId, long amount) {
+        if (propertyId < 0 || propertyId >= rentTotals.length) return;
+        int slot = advance();
+        rentBuckets[slot][propertyId] += amount;
+        rentTotals[propertyId] += amount;
+    }
+
+    /** Expires the buckets the clock has moved past and returns the current bucket. */
+    private int advance() {
+        long now = clock.getAsLong();
+        if (now > currentKey) {
+            if (now - currentKey >= buckets) {
+                for (int b = 0; b < buckets; b++) {
+                    Arrays.fill(pairBuckets[b], 0);
+                    Arrays.fill(rentBuckets[b], 0);
+                }
+                Arrays.fill(pairTotals, 0);
+                Arrays.fill(rentTotals, 0);
+            } else {
+                for (long key = currentKey + 1; key <= now; key++) {
+                    expire(Math.floorMod(key, buckets));
+                }
+            }
+            currentKey = now;
+        }
+        return Math.floorMod(currentKey, buckets);
+    }
+
+    private void expire(int slot) {
+        long[] pairs = pairBuckets[slot];
+        for (int i = 0; i < pairs.length; i++) {
+            pairTotals[i] -= pairs[i];
+            pairs[i] = 0;
+        }
+        long[] rent = rentBuckets[slot];
+        for (int i = 0; i < rent.length; i++) {
+            rentTotals[i] -= rent[i];
+            rent[i] = 0;
+        }
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getFlow(int fromId, int toId) {
+        advance();
+        if (fromId < 0 || toId < 0 || fromId >= stride || toId >= stride) return 0;
+        return pairTotals[fromId * stride + toId];
+    }
+
+    public long getRentReceived(int propertyId) {
+        advance();
+        return propertyId >= 0 && propertyId < rentTotals.length ? rentTotals[propertyId] : 0;
+    }
+
+    public int getPropertyCount() {
+        return rentTotals.length;
+    }
+
+    /**
+     * Fills the arrays with the largest debtor -> creditor flows in the window, largest
+     * first, and returns how many were found (at most the arrays' length).
+     */
+    public int topPairs(int[] fromIds, int[] toIds, long[] amounts) {
+        advance();
+        int found = 0;
+        for (int pair = 0; pair < pairTotals.length; pair++) {
+            long amount = pairTotals[pair];
+            if (amount <= 0) continue;
+            int at = found < amounts.length ? found++ : amounts.length;
+            while (at > 0 && amounts[at - 1] < amount) {
+                if (at < amounts.length) {
+                    fromIds[at] = fromIds[at - 1];
+                    toIds[at] = toIds[at - 1];
+                    amounts[at] = amounts[at - 1];
+                }
+                at--;
+            }
+            if (at < amounts.length) {
+                fromIds[at] = pair / stride;
+                toIds[at] = pair % stride;
+                amounts[at] = amount;
+            }
+        }
+        return found;
+    }
+}
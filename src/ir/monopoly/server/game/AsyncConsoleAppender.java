@@ -0,0 +1,75 @@
+package ir.monopoly.server.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Console output off the command path: append() queues a line and returns, and one
+ * daemon thread drains whatever has queued and prints it as a single write. When the
+ * queue is full, lines are dropped and counted rather than blocking a game.
+ */
+public class AsyncConsoleAppender {
+    public static final String CAPACITY_PROPERTY = "monopoly.log.queue";
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int MAX_BATCH = 512;
+    private static final AsyncConsoleAppender INSTANCE = new AsyncConsoleAppender(
+            Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY));
+
+    private final BlockingQueue<String> queue;
+    private final LongAdder dropped = new LongAdder();
+
+    private AsyncConsoleAppender(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        Thread writer = new Thread(this::drain, "console-appender");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "console-appender-flush"));
+    }
+
+    public static AsyncConsoleAppender get() {
+        return INSTANCE;
+    }
+
+    public void append(String line) {
+        if (!queue.offer(line)) dropped.increment();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    private void drain() {
+        List<String> batch = new ArrayList<>(MAX_BATCH);
+        StringBuilder out = new StringBuilder();
+        while (true) {
+            try {
+                String first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch, out);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /** Prints what is still queued; run at shutdown so the last lines are not lost. */
+    private void flush() {
+        List<String> batch = new ArrayList<>();
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) write(batch, new StringBuilder());
+    }
+
+    private static synchronized void write(List<String> batch, StringBuilder out) {
+        out.setLength(0);
+        for (String line : batch) out.append(line).append(System.lineSeparator());
+        System.out.print(out);
+        System.out.flush();
+        batch.clear();
+    }
+}
@@ -5,6 +5,7 @@ import ir.monopoly.server.player.PlayerStatus;
 import ir.monopoly.server.property.Property;
 
 public class AuctionManager {
+    public static final int MIN_BID = 10;
     private final Property property;
     private final Player[] activeBidders;
     private int bidderCount;
@@ -13,6 +14,8 @@ public class AuctionManager {
     private int currentBidderIndex = 0;
     private boolean roundFinished = false;
     private boolean auctionActive = false;
+    private boolean settled = false;
+    private int pricePaid = 0;
     private final GameState gameState;
 
     public AuctionManager(Property property, Player[] players, GameState gameState) {
@@ -26,7 +29,7 @@ public class AuctionManager {
                 bidderCount++;
             }
         }
-        this.currentHighestBid = 10;
+        this.currentHighestBid = MIN_BID;
         this.auctionActive = true;
         this.gameState = gameState;
     }
@@ -80,7 +83,9 @@ public class AuctionManager {
 
     private void endAuction() {
         auctionActive = false;
-        if (currentWinner != null) {
+        if (currentWinner != null && !settled) {
+            settled = true;
+            pricePaid = currentHighestBid;
             currentWinner.changeBalance(-currentHighestBid);
             property.setOwner(currentWinner.getPlayerId());
             currentWinner.addProperty(property);
@@ -93,8 +98,9 @@ public class AuctionManager {
             endAuction();
         } else if (bidderCount > 0) {
             Player winner = activeBidders[0];
-            if (winner.getBalance() >= 10) {
-                winner.changeBalance(-10);
+            if (winner.getBalance() >= MIN_BID) {
+                pricePaid = MIN_BID;
+                winner.changeBalance(-MIN_BID);
                 property.setOwner(winner.getPlayerId());
                 winner.addProperty(property);
             }
@@ -113,6 +119,11 @@ public class AuctionManager {
         return currentHighestBid;
     }
 
+    /** What the new owner was charged once the auction ended, or 0 if nobody bought. */
+    public int getPricePaid() {
+        return pricePaid;
+    }
+
     public Player getCurrentWinner() {
         return currentWinner;
     }
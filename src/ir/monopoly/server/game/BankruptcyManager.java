@@ -7,7 +7,9 @@ public class BankruptcyManager {
 
     public static void processBankruptcy(Player bankruptPlayer, Player creditor, GameState gameState) {
         bankruptPlayer.setStatus(PlayerStatus.BANKRUPT);
-        gameState.addEvent("Player " + bankruptPlayer.getName() + " went bankrupt.");
+        gameState.getCardDeck().returnJailCards(bankruptPlayer);
+        gameState.getEvents().publish(GameEventType.BANKRUPT, bankruptPlayer.getPlayerId(),
+                creditor == null ? 0 : creditor.getPlayerId(), -1, bankruptPlayer.getBalance());
 
         if (creditor != null) {
             int remainingCash = bankruptPlayer.getBalance();
@@ -18,12 +20,13 @@ public class BankruptcyManager {
         }
         bankruptPlayer.changeBalance(-bankruptPlayer.getBalance());
 
+        // PropertyTree iteration tolerates removing the visited property.
         bankruptPlayer.getOwnedProperties().forEach(property -> {
             property.clearOwner();
             property.setMortgaged(false);
             property.removeHouses(property.getHouseCount());
             if (property.hasHotel()) property.removeHotel();
-            gameState.addEvent("Property " + property.getName() + " returned to the bank.");
+            gameState.getEvents().publish(GameEventType.PROPERTY_RETURNED, bankruptPlayer.getPlayerId(), 0, property.getPropertyId(), 0);
             bankruptPlayer.removeProperty(property.getPropertyId());
         });
 
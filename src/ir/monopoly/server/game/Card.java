@@ -5,13 +5,21 @@ import ir.monopoly.server.player.Player;
 public class Card {
     private final String description;
     private final CardAction action;
+    private final boolean keptByPlayer;
 
     public Card(String description, CardAction action) {
+        this(description, action, false);
+    }
+
+    /** A kept card leaves the deck when drawn and goes back to the bottom once played. */
+    public Card(String description, CardAction action, boolean keptByPlayer) {
         this.description = description;
         this.action = action;
+        this.keptByPlayer = keptByPlayer;
     }
 
     public String getDescription() { return description; }
+    public boolean isKeptByPlayer() { return keptByPlayer; }
 
     public void execute(Player player, GameState gameState) {
         action.execute(player, gameState);
@@ -1,38 +1,125 @@
 package ir.monopoly.server.game;
 
-import ir.monopoly.server.datastructure.MyQueue;
+import ir.monopoly.server.datastructure.IntQueue;
+import ir.monopoly.server.player.Player;
+import java.util.SplittableRandom;
 
+/**
+ * The Chance and Community Chest piles as queues of card indices. A draw takes the top
+ * card and puts it back at the bottom, except a Get Out of Jail Free card, which stays
+ * out of its pile until the player holding it plays it or goes bankrupt. The piles are
+ * shuffled from the game's seed, so a replayed game draws the same cards.
+ */
 public class CardDeck {
-    private final MyQueue<Card> chanceCards = new MyQueue<>();
-    private final MyQueue<Card> communityChestCards = new MyQueue<>();
+    private static final Card[] CHANCE_CARDS = {
+            new Card("Advance to GO (Collect $200)", (p, gs) -> {
+                p.setCurrentPosition(0);
+                p.changeBalance(200);
+            }),
+            new Card("Go to Jail! Move directly to Jail.", (p, gs) -> {
+                p.setStatus(ir.monopoly.server.player.PlayerStatus.IN_JAIL);
+                p.setCurrentPosition(gs.getBoard().getJailPosition());
+            }),
+            new Card("Speeding fine $15", (p, gs) -> p.changeBalance(-15)),
+            new Card("Get Out of Jail Free", (p, gs) -> p.addGetOutOfJailFreeCard(true), true)
+    };
+    private static final Card[] COMMUNITY_CHEST_CARDS = {
+            new Card("Bank error! Collect $200", (p, gs) -> p.changeBalance(200)),
+            new Card("Doctor's fee. Pay $50", (p, gs) -> p.changeBalance(-50)),
+            new Card("Get Out of Jail Free", (p, gs) -> p.addGetOutOfJailFreeCard(false), true)
+    };
+    private static final int CHANCE_JAIL_CARD = jailCardIndex(CHANCE_CARDS);
+    private static final int COMMUNITY_JAIL_CARD = jailCardIndex(COMMUNITY_CHEST_CARDS);
 
-    public CardDeck() {
+    private final IntQueue chanceCards = new IntQueue(CHANCE_CARDS.length);
+    private final IntQueue communityChestCards = new IntQueue(COMMUNITY_CHEST_CARDS.length);
+    private long chanceDraws = 0;
+    private long communityChestDraws = 0;
 
-        chanceCards.enqueue(new Card("Advance to GO (Collect $200)", (p, gs) -> {
-            p.setCurrentPosition(0);
-            p.changeBalance(200);
-        }));
-
-        chanceCards.enqueue(new Card("Go to Jail! Move directly to Jail.", (p, gs) -> {
-            p.setStatus(ir.monopoly.server.player.PlayerStatus.IN_JAIL);
-            p.setCurrentPosition(10);
-        }));
+    public CardDeck(long seed) {
+        // split() so the shuffle does not repeat the dice stream built from the same seed.
+        SplittableRandom random = new SplittableRandom(seed).split();
+        shuffle(chanceCards, CHANCE_CARDS.length, random);
+        shuffle(communityChestCards, COMMUNITY_CHEST_CARDS.length, random);
+    }
 
-        chanceCards.enqueue(new Card("Speeding fine $15", (p, gs) -> p.changeBalance(-15)));
+    private static int jailCardIndex(Card[] cards) {
+        for (int i = 0; i < cards.length; i++) {
+            if (cards[i].isKeptByPlayer()) return i;
+        }
+        return -1;
+    }
 
-        communityChestCards.enqueue(new Card("Bank error! Collect $200", (p, gs) -> p.changeBalance(200)));
-        communityChestCards.enqueue(new Card("Doctor's fee. Pay $50", (p, gs) -> p.changeBalance(-50)));
+    private static void shuffle(IntQueue pile, int cards, SplittableRandom random) {
+        int[] order = new int[cards];
+        for (int i = 0; i < cards; i++) order[i] = i;
+        for (int i = cards - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        for (int card : order) pile.enqueue(card);
     }
 
     public Card drawChance() {
-        Card c = chanceCards.dequeue();
-        chanceCards.enqueue(c);
-        return c;
+        chanceDraws++;
+        return draw(chanceCards, CHANCE_CARDS);
     }
 
     public Card drawCommunityChest() {
-        Card c = communityChestCards.dequeue();
-        communityChestCards.enqueue(c);
-        return c;
+        communityChestDraws++;
+        return draw(communityChestCards, COMMUNITY_CHEST_CARDS);
+    }
+
+    private static Card draw(IntQueue pile, Card[] cards) {
+        Card card = cards[pile.peek()];
+        if (card.isKeptByPlayer()) {
+            pile.dequeue();
+        } else {
+            pile.rotate();
+        }
+        return card;
+    }
+
+    /** Plays the player's Get Out of Jail Free card, Chance first, and returns it to the bottom of its pile. */
+    public boolean useJailCard(Player player) {
+        boolean chance = player.hasChanceJailCard();
+        if (!player.useJailCard()) return false;
+        if (chance) {
+            chanceCards.enqueue(CHANCE_JAIL_CARD);
+        } else {
+            communityChestCards.enqueue(COMMUNITY_JAIL_CARD);
+        }
+        return true;
+    }
+
+    /** A bankrupt player's cards go back to their piles. */
+    public void returnJailCards(Player player) {
+        while (useJailCard(player)) {
+        }
+    }
+
+    public long getChanceDraws() { return chanceDraws; }
+    public long getCommunityChestDraws() { return communityChestDraws; }
+
+    /** The pile's card indices from the top down. */
+    public int[] getChanceOrder() { return order(chanceCards); }
+    public int[] getCommunityChestOrder() { return order(communityChestCards); }
+
+    private static int[] order(IntQueue pile) {
+        int[] order = new int[pile.size()];
+        for (int i = 0; i < order.length; i++) order[i] = pile.get(i);
+        return order;
+    }
+
+    /** Snapshot restore: puts the piles in the given order. */
+    public void restore(long chanceDraws, int[] chanceOrder, long communityChestDraws, int[] communityChestOrder) {
+        this.chanceDraws = chanceDraws;
+        this.communityChestDraws = communityChestDraws;
+        chanceCards.clear();
+        for (int card : chanceOrder) chanceCards.enqueue(card);
+        communityChestCards.clear();
+        for (int card : communityChestOrder) communityChestCards.enqueue(card);
     }
 }
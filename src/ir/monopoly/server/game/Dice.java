@@ -1,23 +1,42 @@
 package ir.monopoly.server.game;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
+/**
+ * The single roll stream of one game. The same seed always yields the same sequence,
+ * and the roll index counts every roll taken from the stream (movement and utility
+ * rent alike), so a game can be replayed from its seed.
+ */
 public class Dice {
     private static final int MIN = 1;
     private static final int MAX = 6;
-    private final Random random;
+    private final long seed;
+    private final SplittableRandom random;
+    private long rollIndex = 0;
 
     private int die1;
     private int die2;
 
     public Dice() {
-        this.random = new Random();
+        this(new SplittableRandom().nextLong());
     }
 
-    public int[] roll() {
+    public Dice(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /** Rolls both dice and returns their sum. */
+    public int roll() {
         die1 = random.nextInt(MAX) + MIN;
         die2 = random.nextInt(MAX) + MIN;
-        return new int[]{die1, die2};
+        rollIndex++;
+        return die1 + die2;
+    }
+
+    /** Brings a fresh stream to the point after rollIndex rolls. */
+    public void fastForward(long rollIndex) {
+        while (this.rollIndex < rollIndex) roll();
     }
 
     public int getSum() {
@@ -35,4 +54,12 @@ public class Dice {
     public int getDie2() {
         return die2;
     }
-}
\ No newline at end of file
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getRollIndex() {
+        return rollIndex;
+    }
+}
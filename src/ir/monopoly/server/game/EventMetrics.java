@@ -0,0 +1,35 @@
+package ir.monopoly.server.game;
+
+/**
+ * Counts a game's events per kind. Subscribe it to each game a room runs; the room's
+ * serial executor is the only writer and reader, so plain counters suffice.
+ */
+public class EventMetrics implements GameEventListener {
+    private static final GameEventType[] TYPES = GameEventType.values();
+    private final long[] counts = new long[TYPES.length];
+    private long total = 0;
+
+    @Override
+    public void onEvent(GameEvent event) {
+        counts[event.getType().ordinal()]++;
+        total++;
+    }
+
+    public long getCount(GameEventType type) {
+        return counts[type.ordinal()];
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /** "events=N", then every kind seen with its count. */
+    public String report() {
+        StringBuilder sb = new StringBuilder("events=").append(total);
+        for (GameEventType type : TYPES) {
+            long count = counts[type.ordinal()];
+            if (count > 0) sb.append(' ').append(type.name()).append('=').append(count);
+        }
+        return sb.toString();
+    }
+}
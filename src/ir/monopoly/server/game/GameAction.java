@@ -10,26 +10,26 @@ public class GameAction {
     private final ActionType type;
     private final int playerId;
     private final int otherPlayerId;
-    private final Object oldValue;
-    private final Object newValue;
+    private final int oldValue;
+    private final int newValue;
     private final int targetId;
     private final Property[] offeredProperties;
     private final Property[] requestedProperties;
     private final int offeredCash;
     private final int requestedCash;
 
-    public GameAction(ActionType type, int playerId, Object oldValue, Object newValue, int targetId) {
+    public GameAction(ActionType type, int playerId, int oldValue, int newValue, int targetId) {
         this(type, playerId, -1, oldValue, newValue, targetId, null, null, 0, 0);
     }
 
     public GameAction(ActionType type, int senderId, int receiverId,
                       Property[] offeredProps, Property[] requestedProps,
                       int offeredCash, int requestedCash) {
-        this(type, senderId, receiverId, null, null, -1, offeredProps, requestedProps, offeredCash, requestedCash);
+        this(type, senderId, receiverId, 0, 0, -1, offeredProps, requestedProps, offeredCash, requestedCash);
     }
 
     private GameAction(ActionType type, int playerId, int otherPlayerId,
-                       Object oldValue, Object newValue, int targetId,
+                       int oldValue, int newValue, int targetId,
                        Property[] offeredProperties, Property[] requestedProperties,
                        int offeredCash, int requestedCash) {
         this.type = type;
@@ -47,8 +47,8 @@ public class GameAction {
     public ActionType getType() { return type; }
     public int getPlayerId() { return playerId; }
     public int getOtherPlayerId() { return otherPlayerId; }
-    public Object getOldValue() { return oldValue; }
-    public Object getNewValue() { return newValue; }
+    public int getOldValue() { return oldValue; }
+    public int getNewValue() { return newValue; }
     public int getTargetId() { return targetId; }
     public Property[] getOfferedProperties() { return offeredProperties; }
     public Property[] getRequestedProperties() { return requestedProperties; }
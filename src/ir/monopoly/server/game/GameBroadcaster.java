@@ -0,0 +1,10 @@
+package ir.monopoly.server.game;
+
+public interface GameBroadcaster {
+    void broadcast(String message);
+
+    void sendToPlayer(int playerId, String message);
+
+    /** Sends an already encoded UTF-8 message line, trailing newline included, as is. */
+    void sendToPlayer(int playerId, byte[] line);
+}
@@ -2,23 +2,64 @@ package ir.monopoly.server.game;
 
 import ir.monopoly.server.board.Tile;
 import ir.monopoly.server.board.TileType;
-import ir.monopoly.server.network.GameServer;
+import ir.monopoly.server.datastructure.TransactionGraph;
+import ir.monopoly.server.datastructure.TransactionWindow;
 import ir.monopoly.server.player.Player;
 import ir.monopoly.server.player.PlayerStatus;
 import ir.monopoly.server.property.Property;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * Runs one game's commands and tells the clients what changed. It takes no lock:
+ * GameRoom calls it only from the room's SerialExecutor. Broadcasts only queue lines
+ * on the connections, so a slow client never blocks the room or pins a carrier.
+ */
 public class GameController {
+    private static final int FLOW_WINDOW_TURNS = 10;
+    private static final int FLOW_WINDOW_SECONDS = 60;
     private final GameState gameState;
-    private final GameServer server;
+    private final GameBroadcaster broadcaster;
+    private final SyncMode syncMode;
+    private final StateDeltaTracker deltaTracker;
+    private final LatestEvent latestEvent = new LatestEvent();
     private boolean awaitingBuyDecision = false;
     private Property propertyForSale = null;
+    private byte[] topKMessage;
+    private long topKVersion;
 
-    public GameController(GameState gameState, GameServer server) {
+    public GameController(GameState gameState, GameBroadcaster broadcaster) {
+        this(gameState, broadcaster, SyncMode.fromSystemProperty());
+    }
+
+    public GameController(GameState gameState, GameBroadcaster broadcaster, SyncMode syncMode) {
         this.gameState = gameState;
-        this.server = server;
+        this.broadcaster = broadcaster;
+        this.syncMode = syncMode;
+        this.deltaTracker = new StateDeltaTracker(gameState);
+        gameState.getEvents().subscribe(latestEvent);
+        attachFlowWindows();
+    }
+
+    /** Rolling cash-flow windows for GET_CASH_FLOW; live analytics only, not journaled or snapshotted. */
+    private void attachFlowWindows() {
+        TransactionGraph ledger = gameState.getTransactionGraph();
+        int boardSize = gameState.getBoard().getSize();
+        TurnManager turnManager = gameState.getTurnManager();
+        ledger.addWindow(TransactionWindow.lastTurns(ledger.getNumPlayers(), boardSize, FLOW_WINDOW_TURNS, turnManager::getTurnCounter));
+        ledger.addWindow(TransactionWindow.lastSeconds(ledger.getNumPlayers(), boardSize, FLOW_WINDOW_SECONDS));
+    }
+
+    /** The property the current player was offered and has not yet bought or passed on. */
+    public Property getPendingPurchase() {
+        return awaitingBuyDecision ? propertyForSale : null;
+    }
+
+    public void restorePendingPurchase(Property property) {
+        this.propertyForSale = property;
+        this.awaitingBuyDecision = property != null;
     }
 
-    public synchronized String handleCommand(String type, int pId, String extra) {
+    public String handleCommand(String type, int pId, String extra) {
         Player player = gameState.getPlayerById(pId);
         if (player == null) {
             return "{\"type\":\"ERROR\",\"message\":\"Player not found!\"}";
@@ -28,6 +69,21 @@ public class GameController {
             return "{\"type\":\"ERROR\",\"message\":\"You are bankrupt and cannot act!\"}";
         }
 
+        if (isReadOnly(type)) {
+            return dispatch(type, player, extra);
+        }
+        // Nothing is checkpointed or dropped from the redo history unless the command changes the game.
+        UndoManager undoManager = gameState.getUndoManager();
+        undoManager.beforeChange(pendingPurchaseId());
+        try {
+            return dispatch(type, player, extra);
+        } finally {
+            undoManager.afterChange(pendingPurchaseId());
+        }
+    }
+
+    private String dispatch(String type, Player player, String extra) {
+        int pId = player.getPlayerId();
         if (gameState.isAuctionActive()) {
             return handleAuctionCommand(type, pId, extra);
         }
@@ -55,18 +111,21 @@ public class GameController {
             case "BUILD": return handleBuild(player, extra);
             case "END_TURN": return handleEndTurn(player);
             case "GET_TOP_K":
-                String report = LeaderboardManager.getTopKReport(gameState);
-                report = escapeJson(report);
-                return "{\"type\":\"SHOW_CARD\",\"text\":\"" + report + "\"}";
+                broadcaster.sendToPlayer(pId, topKMessage());
+                return null;
+            case "GET_CASH_FLOW":
+                return "{\"type\":\"SHOW_CARD\",\"text\":\"" + escapeJson(LeaderboardManager.getCashFlowReport(gameState)) + "\"}";
             case "UNDO":
-                boolean undone = gameState.getUndoManager().undo();
+                boolean undone = gameState.getUndoManager().undo(pendingPurchaseId());
                 if (undone) {
+                    applyRestoredPendingPurchase();
                     syncGameStateAfterUndoRedo();
                 }
                 return null;
             case "REDO":
                 boolean redone = gameState.getUndoManager().redo();
                 if (redone) {
+                    applyRestoredPendingPurchase();
                     syncGameStateAfterUndoRedo();
                 }
                 return null;
@@ -74,6 +133,19 @@ public class GameController {
         }
     }
 
+    private static boolean isReadOnly(String type) {
+        return type.equals("UNDO") || type.equals("REDO") || type.equals("GET_TOP_K") || type.equals("GET_CASH_FLOW");
+    }
+
+    private int pendingPurchaseId() {
+        return awaitingBuyDecision && propertyForSale != null ? propertyForSale.getPropertyId() : -1;
+    }
+
+    private void applyRestoredPendingPurchase() {
+        int propertyId = gameState.getUndoManager().getRestoredPendingPurchase();
+        restorePendingPurchase(propertyId >= 0 ? gameState.getBoard().getProperty(propertyId) : null);
+    }
+
     private String handleAuctionCommand(String type, int pId, String extra) {
         AuctionManager auction = gameState.getAuctionManager();
         Player player = gameState.getPlayerById(pId);
@@ -89,7 +161,8 @@ public class GameController {
                     if (auction.placeBid(player, amount)) {
                         // Broadcast auction update
                         broadcastAuctionStatus();
-                        gameState.addEvent("AUCTION_BID: " + player.getName() + " bid $" + amount);
+                        gameState.getEvents().publish(GameEventType.AUCTION_BID, player.getPlayerId(), 0,
+                                auction.getProperty().getPropertyId(), amount);
                         return null;
                     } else {
                         return "{\"type\":\"ERROR\",\"message\":\"Invalid bid! Must be higher than current bid and you must have enough money.\"}";
@@ -101,7 +174,8 @@ public class GameController {
             case "PASS":
                 if (auction.passBid(player)) {
                     broadcastAuctionStatus();
-                    gameState.addEvent("AUCTION_PASS: " + player.getName() + " passed");
+                    gameState.getEvents().publish(GameEventType.AUCTION_PASS, player.getPlayerId(), 0,
+                            auction.getProperty().getPropertyId(), 0);
 
                     if (auction.isFinished()) {
                         endAuction();
@@ -126,7 +200,7 @@ public class GameController {
                     "\",\"currentBid\":" + auction.getCurrentHighestBid() +
                     ",\"currentBidder\":" + (currentBidder != null ? currentBidder.getPlayerId() : -1) +
                     ",\"status\":\"" + escapeJson(status) + "\"}";
-            server.broadcast(json);
+            broadcaster.broadcast(json);
         }
     }
 
@@ -140,10 +214,10 @@ public class GameController {
             if (winner != null) {
                 gameState.getTransactionGraph().recordTransaction(winner.getPlayerId(), 0, winningBid); // 0 = bank
 
-                gameState.addEvent("AUCTION_WON: " + winner.getName() + " won " + property.getName() + " for $" + winningBid);
+                gameState.getEvents().publish(GameEventType.AUCTION_WON, winner.getPlayerId(), 0, property.getPropertyId(), winningBid);
             }
 
-            server.broadcast("{\"type\":\"AUCTION_END\",\"winner\":" + (winner != null ? winner.getPlayerId() : -1) +
+            broadcaster.broadcast("{\"type\":\"AUCTION_END\",\"winner\":" + (winner != null ? winner.getPlayerId() : -1) +
                     ",\"property\":\"" + escapeJson(property.getName()) + "\",\"amount\":" + winningBid + "}");
 
             gameState.endAuction();
@@ -156,38 +230,37 @@ public class GameController {
             return "{\"type\":\"ERROR\",\"message\":\"Finish the auction first!\"}";
         }
 
-        Dice dice = new Dice();
-        dice.roll();
-        int total = dice.getSum();
-
-        if (player.getStatus() == PlayerStatus.IN_JAIL) {
-            if (dice.isDoubles()) {
-                player.releaseFromJail();
-                server.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"Doubles! " + player.getName() + " is FREE!\"}");
-            } else {
-                player.incrementJailTurns();
-                if (player.getJailTurns() >= 3) {
-                    int oldBalance = player.getBalance();
-                    player.changeBalance(-50);
-                    gameState.getUndoManager().recordAction(new GameAction(
-                            GameAction.ActionType.MONEY_CHANGE,
-                            player.getPlayerId(),
-                            oldBalance,
-                            player.getBalance(),
-                            -1
-                    ));
-                    player.releaseFromJail();
-                    server.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"3rd turn! " + player.getName() + " paid $50 fine and is free.\"}");
-                } else {
-                    server.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"" + player.getName() + " failed to roll doubles.\"}");
-                    return null;
-                }
+        Dice dice = gameState.getDice();
+        int total = dice.roll();
+        gameState.getEvents().publishRoll(GameEventType.ROLL, player.getPlayerId(), dice.getDie1(), dice.getDie2(), dice.getRollIndex());
+
+        int balanceBeforeJail = player.getBalance();
+        switch (RollResolver.resolveJail(player, dice, gameState.getCardDeck())) {
+            case RELEASED_ON_DOUBLES ->
+                    broadcaster.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"Doubles! " + player.getName() + " is FREE!\"}");
+            case USED_JAIL_CARD ->
+                    broadcaster.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"" + player.getName() +
+                            " used a Get Out of Jail Free card.\"}");
+            case PAID_FINE -> {
+                gameState.getUndoManager().recordAction(new GameAction(
+                        GameAction.ActionType.MONEY_CHANGE,
+                        player.getPlayerId(),
+                        balanceBeforeJail,
+                        player.getBalance(),
+                        -1
+                ));
+                broadcaster.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"3rd turn! " + player.getName() + " paid $" +
+                        RollResolver.JAIL_FINE + " fine and is free.\"}");
             }
+            case STAYED_IN_JAIL -> {
+                broadcaster.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"" + player.getName() + " failed to roll doubles.\"}");
+                return null;
+            }
+            case NOT_IN_JAIL -> { }
         }
 
         int oldPosition = player.getCurrentPosition();
-        int newPos = (oldPosition + total) % 40;
-        player.setCurrentPosition(newPos);
+        int newPos = RollResolver.move(player, total, gameState.getBoard());
         gameState.getUndoManager().recordAction(new GameAction(
                 GameAction.ActionType.MOVEMENT,
                 player.getPlayerId(),
@@ -196,11 +269,14 @@ public class GameController {
                 -1
         ));
 
-        server.broadcast("{\"type\":\"ROLL_UPDATE\",\"playerId\":" + player.getPlayerId() + ",\"currentPosition\":" + newPos + "}");
+        if (syncMode == SyncMode.FULL) {
+            broadcaster.broadcast("{\"type\":\"ROLL_UPDATE\",\"playerId\":" + player.getPlayerId() + ",\"currentPosition\":" + newPos + "}");
+        }
 
         Tile tile = gameState.getBoard().getTileAt(newPos);
-        TileResolver.resolveTile(tile, gameState);
+        TileResolver.resolveTile(newPos, gameState);
 
+        String buyOffer = null;
         if (tile.getTileType() == TileType.PROPERTY) {
             Property prop = (Property) tile.getTileData();
             if (prop.getOwnerId() == null) {
@@ -209,14 +285,16 @@ public class GameController {
                 String message = "You landed on " + prop.getName() + ". Price: $" + prop.getPurchasePrice() +
                         ". Your balance: $" + player.getBalance() +
                         ". Do you want to buy?";
-                server.sendToPlayer(player.getPlayerId(),
-                        "{\"type\":\"BUY_OFFER\",\"property\":\"" + escapeJson(prop.getName()) +
-                                "\",\"price\":" + prop.getPurchasePrice() +
-                                ",\"message\":\"" + escapeJson(message) + "\"}");
+                buyOffer = "{\"type\":\"BUY_OFFER\",\"property\":\"" + escapeJson(prop.getName()) +
+                        "\",\"price\":" + prop.getPurchasePrice() +
+                        ",\"message\":\"" + escapeJson(message) + "\"}";
             }
         }
 
         syncGameState();
+        if (buyOffer != null) {
+            broadcaster.sendToPlayer(player.getPlayerId(), buyOffer);
+        }
         return null;
     }
 
@@ -253,8 +331,8 @@ public class GameController {
             awaitingBuyDecision = false;
 
             broadcastAuctionStatus();
-            server.broadcast("{\"type\":\"AUCTION_START\",\"property\":\"" + escapeJson(propertyForSale.getName()) +
-                    "\",\"minBid\":10,\"message\":\"Auction started for " + escapeJson(propertyForSale.getName()) + "\"}");
+            broadcaster.broadcast("{\"type\":\"AUCTION_START\",\"property\":\"" + escapeJson(propertyForSale.getName()) +
+                    "\",\"minBid\":" + AuctionManager.MIN_BID + ",\"message\":\"Auction started for " + escapeJson(propertyForSale.getName()) + "\"}");
 
             propertyForSale = null;
             return null;
@@ -268,68 +346,119 @@ public class GameController {
     }
 
     private void syncGameStateAfterUndoRedo() {
-        String lastEvent = gameState.getLastEvent();
+        GameEvent event = latestEvent.takeNew();
+
+        if (syncMode == SyncMode.DELTA) {
+            broadcastDelta(event);
+            return;
+        }
 
         for (Player p : gameState.getPlayers()) {
-            server.broadcast("{\"type\":\"PLAYER_STATS\",\"playerId\":" + p.getPlayerId() + ",\"balance\":" + p.getBalance() + "}");
+            broadcaster.broadcast("{\"type\":\"PLAYER_STATS\",\"playerId\":" + p.getPlayerId() + ",\"balance\":" + p.getBalance() + "}");
             sendPlayerProperties(p);
         }
 
         for (Player p : gameState.getPlayers()) {
-            server.broadcast("{\"type\":\"ROLL_UPDATE\",\"playerId\":" + p.getPlayerId() + ",\"currentPosition\":" + p.getCurrentPosition() + "}");
+            broadcaster.broadcast("{\"type\":\"ROLL_UPDATE\",\"playerId\":" + p.getPlayerId() + ",\"currentPosition\":" + p.getCurrentPosition() + "}");
+        }
+        broadcastEvent(event);
+    }
+
+    private void syncGameState() {
+        GameEvent event = latestEvent.takeNew();
+        if (syncMode == SyncMode.FULL) {
+            syncFullState(event);
+            return;
+        }
+        broadcastDelta(event);
+    }
+
+    /**
+     * Sends each player one STATE_DELTA holding only what changed since the last sync:
+     * changed player fields for everyone, the recipient's own property list if their
+     * holdings changed, plus the card text and log line of the newest event.
+     */
+    private void broadcastDelta(GameEvent event) {
+        StateDeltaTracker.Delta delta = deltaTracker.collect();
+
+        String card = event != null && event.getType().showsCard() ? event.body(gameState) : null;
+        String bankruptcies = delta.getBankruptcies();
+        if (!bankruptcies.isEmpty()) {
+            card = card == null ? bankruptcies : bankruptcies + "\n" + card;
+        }
+        String log = logLine(event);
+
+        StringBuilder shared = new StringBuilder();
+        if (!delta.getPlayers().isEmpty()) {
+            shared.append(",\"players\":\"").append(delta.getPlayers()).append("\"");
         }
-        if (lastEvent.contains("UNDO:") || lastEvent.contains("REDO:")) {
-            String cleanMsg = lastEvent.contains(":") ? lastEvent.split(":", 2)[1] : lastEvent;
-            cleanMsg = escapeJson(cleanMsg);
-            server.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"" + cleanMsg + "\"}");
+        if (card != null) {
+            shared.append(",\"card\":\"").append(escapeJson(card)).append("\"");
         }
+        if (log != null) {
+            shared.append(",\"log\":\"").append(escapeJson(log)).append("\"");
+        }
+
+        Player[] players = gameState.getPlayers();
+        for (int i = 0; i < players.length; i++) {
+            Player p = players[i];
+            boolean ownChanged = delta.propertiesChangedFor(i);
+            if (shared.length() == 0 && !ownChanged) continue;
 
-        String safeEvent = escapeJson(lastEvent);
-        server.broadcast("{\"type\":\"EVENT_LOG\",\"message\":\"" + safeEvent + "\"}");
+            StringBuilder message = new StringBuilder("{\"type\":\"STATE_DELTA\"").append(shared);
+            if (ownChanged) {
+                message.append(",\"properties\":\"").append(escapeJson(p.getPropertiesString())).append("\"");
+            }
+            message.append("}");
+            broadcaster.sendToPlayer(p.getPlayerId(), message.toString());
+        }
     }
 
-    private void syncGameState() {
+    private void syncFullState(GameEvent event) {
         Player currentP = gameState.getTurnManager().getCurrentPlayer();
-        String event = gameState.getLastEvent();
 
         for (Player p : gameState.getPlayers()) {
             if (p.getStatus() == PlayerStatus.BANKRUPT) {
-                server.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"" +
+                broadcaster.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"" +
                         escapeJson("💀 " + p.getName() + " went BANKRUPT!") + "\"}");
-                server.broadcast("{\"type\":\"EVENT_LOG\",\"message\":\"" +
+                broadcaster.broadcast("{\"type\":\"EVENT_LOG\",\"message\":\"" +
                         escapeJson(p.getName() + " is bankrupt and out of the game.") + "\"}");
             }
         }
-        if (event.contains("GO") || event.contains("Jail") || event.contains("spaces")) {
-            server.broadcast("{\"type\":\"ROLL_UPDATE\",\"playerId\":" + currentP.getPlayerId() + ",\"currentPosition\":" + currentP.getCurrentPosition() + "}");
+        if (event != null && event.getType().movesPlayer()) {
+            broadcaster.broadcast("{\"type\":\"ROLL_UPDATE\",\"playerId\":" + currentP.getPlayerId() + ",\"currentPosition\":" + currentP.getCurrentPosition() + "}");
         }
 
         for (Player p : gameState.getPlayers()) {
-            server.broadcast("{\"type\":\"PLAYER_STATS\",\"playerId\":" + p.getPlayerId() + ",\"balance\":" + p.getBalance() + "}");
+            broadcaster.broadcast("{\"type\":\"PLAYER_STATS\",\"playerId\":" + p.getPlayerId() + ",\"balance\":" + p.getBalance() + "}");
 
             String status = p.getStatus().toString();
             int jailTurns = p.getJailTurns();
-            server.sendToPlayer(p.getPlayerId(),
+            broadcaster.sendToPlayer(p.getPlayerId(),
                     "{\"type\":\"PLAYER_STATUS\",\"playerId\":" + p.getPlayerId() +
                             ",\"status\":\"" + status +
                             "\",\"jailTurns\":" + jailTurns + "}");
 
             sendPlayerProperties(p);
         }
+        broadcastEvent(event);
+    }
 
-        if (event.contains("ACTION_") || event.contains("CARD_DRAWN") ||
-                event.contains("AUCTION_") || event.contains("JAIL")) {
-            String cleanMsg = event.contains(":") ? event.split(":", 2)[1] : event;
-            cleanMsg = escapeJson(cleanMsg);
-            server.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"" + cleanMsg + "\"}");
+    /** SHOW_CARD for events that pop up a card, then the EVENT_LOG line. */
+    private void broadcastEvent(GameEvent event) {
+        if (event != null && event.getType().showsCard()) {
+            broadcaster.broadcast("{\"type\":\"SHOW_CARD\",\"text\":\"" + escapeJson(event.body(gameState)) + "\"}");
         }
-
-        if (!event.isEmpty() && !event.equals("Game Started")) {
-            String safeEvent = escapeJson(event);
-            server.broadcast("{\"type\":\"EVENT_LOG\",\"message\":\"" + safeEvent + "\"}");
+        String log = logLine(event);
+        if (log != null) {
+            broadcaster.broadcast("{\"type\":\"EVENT_LOG\",\"message\":\"" + escapeJson(log) + "\"}");
         }
     }
 
+    private String logLine(GameEvent event) {
+        return event == null || event.getType() == GameEventType.GAME_STARTED ? null : event.describe(gameState);
+    }
+
     private void sendPlayerProperties(Player player) {
         StringBuilder propertiesList = new StringBuilder();
 
@@ -345,7 +474,7 @@ public class GameController {
 
         String propertiesStr = escapeJson(player.getPropertiesString());
 
-        server.sendToPlayer(player.getPlayerId(),
+        broadcaster.sendToPlayer(player.getPlayerId(),
                 "{\"type\":\"PROPERTY_LIST\",\"playerId\":" + player.getPlayerId() +
                         ",\"properties\":\"" + propertiesStr + "\"}");
     }
@@ -357,7 +486,7 @@ public class GameController {
 
         gameState.getTurnManager().passTurn();
         int nextId = gameState.getTurnManager().getCurrentPlayer().getPlayerId();
-        server.broadcast("{\"type\":\"TURN_UPDATE\",\"currentPlayer\":" + nextId + "}");
+        broadcaster.broadcast("{\"type\":\"TURN_UPDATE\",\"currentPlayer\":" + nextId + "}");
         return null;
     }
 
@@ -366,7 +495,7 @@ public class GameController {
         int targetId = Integer.parseInt(parts[0]);
         int cashAmount = Integer.parseInt(parts[1]);
 
-        server.sendToPlayer(targetId,
+        broadcaster.sendToPlayer(targetId,
                 "{\"type\":\"TRADE_REQUEST\",\"from\":" + s.getPlayerId() +
                         ",\"fromName\":\"" + escapeJson(s.getName()) +
                         "\",\"cash\":" + cashAmount +
@@ -382,7 +511,6 @@ public class GameController {
 
     private String handleRejectTrade(int pId) {
         TradeManager.rejectTrade(gameState);
-        gameState.addEvent("TRADE_REJECTED: Trade was rejected.");
         syncGameState();
         return null;
     }
@@ -396,18 +524,46 @@ public class GameController {
         return "{\"type\":\"ERROR\",\"message\":\"Invalid trade command!\"}";
     }
 
-    private String escapeJson(String text) {
+    /**
+     * The GET_TOP_K reply as a ready-to-send UTF-8 line. It is rendered and escaped once
+     * per leaderboard version, so repeated requests between changes cost one write.
+     */
+    private byte[] topKMessage() {
+        long version = gameState.getLeaderboardVersion();
+        if (topKMessage == null || version != topKVersion) {
+            String report = escapeJson(LeaderboardManager.getTopKReport(gameState));
+            topKMessage = ("{\"type\":\"SHOW_CARD\",\"text\":\"" + report + "\"}\n").getBytes(StandardCharsets.UTF_8);
+            topKVersion = version;
+        }
+        return topKMessage;
+    }
+
+    public static String escapeJson(String text) {
         if (text == null) return "";
-        return text.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String escaped = switch (c) {
+                case '\\' -> "\\\\";
+                case '"' -> "\\\"";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> null;
+            };
+            if (escaped == null) {
+                if (sb != null) sb.append(c);
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder(text.length() + 16).append(text, 0, i);
+            sb.append(escaped);
+        }
+        return sb == null ? text : sb.toString();
     }
 
     private String handleMortgage(Player player, String propertyIdStr) {
         try {
-            int propertyId = Integer.parseInt(propertyIdStr);
+            int propertyId = parsePropertyId(propertyIdStr);
             Property property = gameState.getPropertyById(propertyId);
             if (property == null) {
                 return "{\"type\":\"ERROR\",\"message\":\"Property not found!\"}";
@@ -427,7 +583,7 @@ public class GameController {
 
     private String handleUnmortgage(Player player, String propertyIdStr) {
         try {
-            int propertyId = Integer.parseInt(propertyIdStr);
+            int propertyId = parsePropertyId(propertyIdStr);
             Property property = gameState.getPropertyById(propertyId);
             if (property == null) {
                 return "{\"type\":\"ERROR\",\"message\":\"Property not found!\"}";
@@ -447,7 +603,7 @@ public class GameController {
 
     private String handleBuild(Player player, String extra) {
         try {
-            int propertyId = Integer.parseInt(extra.trim());
+            int propertyId = parsePropertyId(extra);
             Property property = gameState.getPropertyById(propertyId);
             if (property == null) {
                 return "{\"type\":\"ERROR\",\"message\":\"Property not found!\"}";
@@ -464,4 +620,16 @@ public class GameController {
             return "{\"type\":\"ERROR\",\"message\":\"Invalid property ID!\"}";
         }
     }
-}
\ No newline at end of file
+
+    /** A numeric property ID, or the position of the one tile with that name. */
+    private int parsePropertyId(String text) {
+        if (text == null) throw new NumberFormatException("No property ID");
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            int id = gameState.getBoard().indexOf(text.trim());
+            if (id < 0) throw e;
+            return id;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package ir.monopoly.server.game;
+
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.property.Property;
+
+/**
+ * One thing that happened in a game, as a kind and primitive fields; the bus fills
+ * pooled instances, so publishing allocates nothing. Which fields are set depends on
+ * the kind: players and properties are ids (0 and -1 when unused), amount is dollars,
+ * value is a roll index, seed or turn number (1 for a Chance card, 0 for Community
+ * Chest), and text is a card's description.
+ * The log line is only built by describe(), for the subscribers that print one.
+ */
+public final class GameEvent {
+    private GameEventType type;
+    private int playerId;
+    private int otherPlayerId;
+    private int propertyId;
+    private int amount;
+    private int die1;
+    private int die2;
+    private long value;
+    private String text;
+
+    GameEvent set(GameEventType type, int playerId, int otherPlayerId, int propertyId, int amount) {
+        this.type = type;
+        this.playerId = playerId;
+        this.otherPlayerId = otherPlayerId;
+        this.propertyId = propertyId;
+        this.amount = amount;
+        this.die1 = 0;
+        this.die2 = 0;
+        this.value = 0;
+        this.text = null;
+        return this;
+    }
+
+    GameEvent dice(int die1, int die2) {
+        this.die1 = die1;
+        this.die2 = die2;
+        return this;
+    }
+
+    GameEvent value(long value) {
+        this.value = value;
+        return this;
+    }
+
+    GameEvent text(String text) {
+        this.text = text;
+        return this;
+    }
+
+    void copyFrom(GameEvent other) {
+        set(other.type, other.playerId, other.otherPlayerId, other.propertyId, other.amount);
+        this.die1 = other.die1;
+        this.die2 = other.die2;
+        this.value = other.value;
+        this.text = other.text;
+    }
+
+    public GameEventType getType() { return type; }
+    public int getPlayerId() { return playerId; }
+    public int getOtherPlayerId() { return otherPlayerId; }
+    public int getPropertyId() { return propertyId; }
+    public int getAmount() { return amount; }
+    public int getDie1() { return die1; }
+    public int getDie2() { return die2; }
+    public long getValue() { return value; }
+    public String getText() { return text; }
+
+    /** The event's log line, e.g. "ACTION_RENT:Paid $26 rent to Player 2". */
+    public String describe(GameState gs) {
+        return type.getPrefix() + body(gs);
+    }
+
+    /** The log line without its prefix: the text a card pop-up shows. */
+    public String body(GameState gs) {
+        switch (type) {
+            case GAME_STARTED: return "Game Started";
+            case DICE_SEED: return String.valueOf(value);
+            case ROLL: return "ROLL #" + value + ": " + player(gs, playerId) + " rolled " + die1 + "+" + die2;
+            case UTILITY_ROLL: return "ROLL #" + value + ": utility rent roll " + die1 + "+" + die2;
+            case CARD_DRAWN: return text;
+            case SENT_TO_JAIL: return player(gs, playerId) + " was sent to Jail!";
+            case TAX_PAID: return "Paid $" + amount + " Tax.";
+            case PURCHASE_OFFER: return "Unowned " + property(gs) + " for $" + amount;
+            case RENT_PAID: return "Paid $" + amount + " rent to " + player(gs, otherPlayerId);
+            case PROPERTY_BOUGHT: return player(gs, playerId) + " bought " + property(gs) + " for $" + amount;
+            case HOUSE_BUILT: return player(gs, playerId) + " built a house on " + property(gs);
+            case HOTEL_BUILT: return player(gs, playerId) + " built a HOTEL on " + property(gs);
+            case MORTGAGED: return player(gs, playerId) + " mortgaged " + property(gs) + " for $" + amount;
+            case UNMORTGAGED: return player(gs, playerId) + " unmortgaged " + property(gs) + " for $" + amount;
+            case AUCTION_STARTED: return "Auction for " + property(gs) + " started. Minimum bid: $" + amount;
+            case AUCTION_BID: return player(gs, playerId) + " bid $" + amount;
+            case AUCTION_PASS: return player(gs, playerId) + " passed";
+            case AUCTION_WON:
+            case AUCTION_ENDED: return player(gs, playerId) + " won " + property(gs) + " for $" + amount;
+            case TRADE_INSUFFICIENT_FUNDS: return "Sender has insufficient funds.";
+            case TRADE_MORTGAGED_PROPERTY: return "Cannot trade mortgaged properties.";
+            case TRADE_PENDING: return "Trade proposed to Player " + otherPlayerId;
+            case TRADE_COMPLETED: return "Trade between " + player(gs, playerId) + " and " + player(gs, otherPlayerId) + " completed.";
+            case TRADE_REJECTED: return "The offer was declined.";
+            case BANKRUPT: return "Player " + player(gs, playerId) + " went bankrupt.";
+            case PROPERTY_RETURNED: return "Property " + property(gs) + " returned to the bank.";
+            case GAME_OVER: return "GAME_OVER";
+            case UNDO: return "Turn " + value + " restored.";
+            case REDO: return "Turn " + value + " re-applied.";
+            case UNDO_REFUSED: return "The game is over.";
+            case NOTHING_TO_UNDO: return "Nothing to undo.";
+            case NOTHING_TO_REDO: return "Nothing to redo.";
+            default: return type.name();
+        }
+    }
+
+    private static String player(GameState gs, int id) {
+        Player p = gs.getPlayerById(id);
+        return p == null ? "Player " + id : p.getName();
+    }
+
+    private String property(GameState gs) {
+        Property p = gs.getPropertyById(propertyId);
+        return p == null ? "#" + propertyId : p.getName();
+    }
+}
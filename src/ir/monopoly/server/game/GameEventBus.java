@@ -0,0 +1,85 @@
+package ir.monopoly.server.game;
+
+import java.util.Arrays;
+
+/**
+ * Delivers a game's events to its subscribers synchronously, on the thread that
+ * changed the game. Events come from a small pool, one per nesting level of publish
+ * calls, and are handed back when the subscribers return. With no subscribers a
+ * publish only bumps the event count.
+ */
+public class GameEventBus {
+    private GameEventListener[] listeners = new GameEventListener[0];
+    private GameEvent[] pool = {new GameEvent(), new GameEvent()};
+    private int depth = 0;
+    private int eventCount = 0;
+
+    public void subscribe(GameEventListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    public void unsubscribe(GameEventListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                GameEventListener[] remaining = new GameEventListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, remaining, 0, i);
+                System.arraycopy(listeners, i + 1, remaining, i, remaining.length - i);
+                listeners = remaining;
+                return;
+            }
+        }
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public void publish(GameEventType type) {
+        publish(type, 0, 0, -1, 0);
+    }
+
+    public void publish(GameEventType type, int playerId, int otherPlayerId, int propertyId, int amount) {
+        eventCount++;
+        if (listeners.length == 0) return;
+        dispatch(acquire().set(type, playerId, otherPlayerId, propertyId, amount));
+    }
+
+    /** For kinds that carry a roll index, a seed or a turn number. */
+    public void publishValue(GameEventType type, int playerId, long value) {
+        eventCount++;
+        if (listeners.length == 0) return;
+        dispatch(acquire().set(type, playerId, 0, -1, 0).value(value));
+    }
+
+    public void publishRoll(GameEventType type, int playerId, int die1, int die2, long rollIndex) {
+        eventCount++;
+        if (listeners.length == 0) return;
+        dispatch(acquire().set(type, playerId, 0, -1, 0).dice(die1, die2).value(rollIndex));
+    }
+
+    /** value is 1 for a Chance card and 0 for Community Chest. */
+    public void publishCard(int playerId, boolean chance, String description) {
+        eventCount++;
+        if (listeners.length == 0) return;
+        dispatch(acquire().set(GameEventType.CARD_DRAWN, playerId, 0, -1, 0).value(chance ? 1 : 0).text(description));
+    }
+
+    private GameEvent acquire() {
+        if (depth == pool.length) {
+            pool = Arrays.copyOf(pool, depth * 2);
+            for (int i = depth; i < pool.length; i++) pool[i] = new GameEvent();
+        }
+        return pool[depth++];
+    }
+
+    private void dispatch(GameEvent event) {
+        try {
+            for (GameEventListener listener : listeners) {
+                listener.onEvent(event);
+            }
+        } finally {
+            depth--;
+        }
+    }
+}
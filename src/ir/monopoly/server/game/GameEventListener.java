@@ -0,0 +1,10 @@
+package ir.monopoly.server.game;
+
+/**
+ * Subscriber of a GameEventBus. The event is reused once onEvent returns, so a
+ * listener that keeps it must copy it.
+ */
+@FunctionalInterface
+public interface GameEventListener {
+    void onEvent(GameEvent event);
+}
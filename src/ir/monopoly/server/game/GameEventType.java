@@ -0,0 +1,55 @@
+package ir.monopoly.server.game;
+
+/**
+ * Kinds of GameEvent. The prefix is what the event's log line starts with; events that
+ * show a card pop up on the clients, and those that may move a player make a full sync
+ * resend the current player's position.
+ */
+public enum GameEventType {
+    GAME_STARTED("", false, false),
+    DICE_SEED("DICE_SEED: ", false, false),
+    ROLL("", false, false),
+    UTILITY_ROLL("", false, false),
+    CARD_DRAWN("ACTION_CARD:", true, true),
+    SENT_TO_JAIL("ACTION_JAIL:", true, true),
+    TAX_PAID("ACTION_TAX:", true, false),
+    PURCHASE_OFFER("ACTION_OFFER:", true, false),
+    RENT_PAID("ACTION_RENT:", true, false),
+    PROPERTY_BOUGHT("", false, false),
+    HOUSE_BUILT("", false, false),
+    HOTEL_BUILT("", false, false),
+    MORTGAGED("", false, false),
+    UNMORTGAGED("", false, false),
+    AUCTION_STARTED("AUCTION_STARTED: ", true, false),
+    AUCTION_BID("AUCTION_BID: ", true, false),
+    AUCTION_PASS("AUCTION_PASS: ", true, false),
+    AUCTION_WON("AUCTION_WON: ", true, false),
+    AUCTION_ENDED("AUCTION_ENDED: ", true, false),
+    TRADE_INSUFFICIENT_FUNDS("TRADE_ERROR: ", false, false),
+    TRADE_MORTGAGED_PROPERTY("TRADE_ERROR: ", false, false),
+    TRADE_PENDING("TRADE_PENDING: ", false, false),
+    TRADE_COMPLETED("TRADE_SUCCESS: ", false, false),
+    TRADE_REJECTED("TRADE_REJECTED: ", false, false),
+    BANKRUPT("", false, false),
+    PROPERTY_RETURNED("", false, false),
+    GAME_OVER("", false, false),
+    UNDO("UNDO: ", true, false),
+    REDO("REDO: ", true, false),
+    UNDO_REFUSED("UNDO: ", true, false),
+    NOTHING_TO_UNDO("UNDO: ", true, false),
+    NOTHING_TO_REDO("REDO: ", true, false);
+
+    private final String prefix;
+    private final boolean showsCard;
+    private final boolean movesPlayer;
+
+    GameEventType(String prefix, boolean showsCard, boolean movesPlayer) {
+        this.prefix = prefix;
+        this.showsCard = showsCard;
+        this.movesPlayer = movesPlayer;
+    }
+
+    public String getPrefix() { return prefix; }
+    public boolean showsCard() { return showsCard; }
+    public boolean movesPlayer() { return movesPlayer; }
+}
@@ -2,13 +2,37 @@ package ir.monopoly.server.game;
 
 import ir.monopoly.server.board.*;
 import ir.monopoly.server.player.Player;
+import ir.monopoly.server.property.ColorGroup;
 import ir.monopoly.server.property.Property;
 import java.util.List;
 
 public class GameInitializer {
+    public static final int STANDARD_BOARD_SIZE = 40;
+
     public static GameState initializeGame(List<Player> players) {
-        Board board = new Board();
-        for (int i = 0; i < 40; i++) {
+        return createGame(players, true, new Dice());
+    }
+
+    public static GameState initializeGame(List<Player> players, long seed) {
+        return createGame(players, true, new Dice(seed));
+    }
+
+    public static GameState initializeGame(List<Player> players, boolean eventLogging, long seed) {
+        return createGame(players, eventLogging, new Dice(seed));
+    }
+
+    /** A game on a custom board; the rules read positions and size from the board. */
+    public static GameState initializeGame(List<Player> players, boolean eventLogging, long seed, Board board) {
+        return new GameState(players.toArray(new Player[0]), board, eventLogging, new Dice(seed));
+    }
+
+    private static GameState createGame(List<Player> players, boolean eventLogging, Dice dice) {
+        return new GameState(players.toArray(new Player[0]), standardBoard(), eventLogging, dice);
+    }
+
+    public static Board standardBoard() {
+        Board.Builder board = Board.builder();
+        for (int i = 0; i < STANDARD_BOARD_SIZE; i++) {
             Tile tile;
             switch (i) {
                 case 0 -> tile = new Tile(i, TileType.GO, "GO");
@@ -17,22 +41,21 @@ public class GameInitializer {
                 case 30 -> tile = new Tile(i, TileType.JAIL, "Go To Jail");
                 case 2, 17, 33 -> tile = new Tile(i, TileType.CARD, "Community Chest");
                 case 7, 22, 36 -> tile = new Tile(i, TileType.CARD, "Chance");
-                case 4, 38 -> tile = new Tile(i, TileType.TAX, "Tax");
-                case 5, 15, 25, 35 -> tile = new Tile(i, TileType.PROPERTY, new Property(i, "Station", 200, "Railroad", 0, 100));
-                case 12, 28 -> tile = new Tile(i, TileType.PROPERTY, new Property(i, "Utility", 150, "Utility", 0, 75));
+                case 4, 38 -> {
+                    board.addTax(new Tile(i, TileType.TAX, "Tax"), i == 4 ? 200 : 100);
+                    continue;
+                }
+                case 5, 15, 25, 35 -> tile = new Tile(i, TileType.PROPERTY, new Property(i, "Station", 200, ColorGroup.RAILROAD, 0, 100));
+                case 12, 28 -> tile = new Tile(i, TileType.PROPERTY, new Property(i, "Utility", 150, ColorGroup.UTILITY, 0, 75));
                 default -> {
-                    String color = getGroup(i);
+                    ColorGroup color = ColorGroup.ofStreet(i);
                     Property p = new Property(i, "Street " + i, 60 + (i * 10), color, 50, 30);
                     tile = new Tile(i, TileType.PROPERTY, p);
                 }
             }
-            board.addTile(tile);
+            board.add(tile);
         }
-        return new GameState(players.toArray(new Player[0]), board);
+        return board.build();
     }
 
-    private static String getGroup(int i) {
-        if (i < 10) return "Brown"; if (i < 20) return "Pink";
-        if (i < 30) return "Red"; return "Blue";
-    }
 }
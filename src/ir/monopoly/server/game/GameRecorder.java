@@ -0,0 +1,59 @@
+package ir.monopoly.server.game;
+
+/**
+ * Receives every state-changing effect of a game as it happens. GameState starts
+ * with NONE; the server installs a journal-backed recorder per room.
+ */
+public interface GameRecorder {
+    GameRecorder NONE = new GameRecorder() {};
+
+    default void onRoll(int playerId, int die1, int die2, long rollIndex) {}
+    default void onRent(int fromId, int toId, int amount) {}
+    default void onCardDrawn(int playerId, boolean chance, String description) {}
+    default void onAuctionWon(int winnerId, int propertyId, int amount) {}
+    default void onBankruptcy(int playerId, int creditorId) {}
+    default void onAction(GameAction action) {}
+
+    /** Forwards every effect to this recorder, then to next. */
+    default GameRecorder andThen(GameRecorder next) {
+        if (this == NONE) return next;
+        GameRecorder first = this;
+        return new GameRecorder() {
+            @Override
+            public void onRoll(int playerId, int die1, int die2, long rollIndex) {
+                first.onRoll(playerId, die1, die2, rollIndex);
+                next.onRoll(playerId, die1, die2, rollIndex);
+            }
+
+            @Override
+            public void onRent(int fromId, int toId, int amount) {
+                first.onRent(fromId, toId, amount);
+                next.onRent(fromId, toId, amount);
+            }
+
+            @Override
+            public void onCardDrawn(int playerId, boolean chance, String description) {
+                first.onCardDrawn(playerId, chance, description);
+                next.onCardDrawn(playerId, chance, description);
+            }
+
+            @Override
+            public void onAuctionWon(int winnerId, int propertyId, int amount) {
+                first.onAuctionWon(winnerId, propertyId, amount);
+                next.onAuctionWon(winnerId, propertyId, amount);
+            }
+
+            @Override
+            public void onBankruptcy(int playerId, int creditorId) {
+                first.onBankruptcy(playerId, creditorId);
+                next.onBankruptcy(playerId, creditorId);
+            }
+
+            @Override
+            public void onAction(GameAction action) {
+                first.onAction(action);
+                next.onAction(action);
+            }
+        };
+    }
+}
@@ -3,44 +3,81 @@ package ir.monopoly.server.game;
 import ir.monopoly.server.board.Board;
 import ir.monopoly.server.player.Player;
 import ir.monopoly.server.property.Property;
+import ir.monopoly.server.datastructure.PlayerMaxHeap;
 import ir.monopoly.server.datastructure.TransactionGraph;
-import java.util.ArrayList;
-import java.util.List;
 
 public class GameState {
     private final Player[] players;
     private final Board board;
     private final CardDeck cardDeck;
+    private final Dice dice;
     private final TurnManager turnManager;
     private final UndoManager undoManager;
     private final TransactionGraph transactionGraph;
-    private final List<String> eventLog;
+    private final PlayerMaxHeap wealthRanking;
+    private final GameEventBus events = new GameEventBus();
+    private final GameEventListener recorderBridge = this::record;
+    private final GameEventListener consoleLog = event -> AsyncConsoleAppender.get().append("LOG: " + event.describe(this));
+    private boolean eventLogging;
+    private boolean gameOver = false;
     private TradeOffer pendingTrade;
     private AuctionManager auctionManager;
+    private GameRecorder recorder = GameRecorder.NONE;
+    private long wealthVersion = 0;
 
     public GameState(Player[] players, Board board) {
+        this(players, board, true);
+    }
+
+    /**
+     * With eventLogging on, every event is printed through the AsyncConsoleAppender;
+     * headless simulations turn it off and events are only counted.
+     */
+    public GameState(Player[] players, Board board, boolean eventLogging) {
+        this(players, board, eventLogging, new Dice());
+    }
+
+    public GameState(Player[] players, Board board, boolean eventLogging, Dice dice) {
         this.players = players;
         this.board = board;
-        this.cardDeck = new CardDeck();
+        this.dice = dice;
+        this.cardDeck = new CardDeck(dice.getSeed());
         this.turnManager = new TurnManager(players);
         this.undoManager = new UndoManager(this);
-        this.transactionGraph = new TransactionGraph(players.length);
-        this.eventLog = new ArrayList<>();
-        this.addEvent("Game Started");
+        this.transactionGraph = new TransactionGraph(maxPlayerId(players));
+        this.wealthRanking = new PlayerMaxHeap(players.length);
+        for (Player p : players) {
+            wealthRanking.insert(p);
+            p.setWealthListener(player -> {
+                wealthRanking.update(player);
+                wealthVersion++;
+            });
+        }
+        setEventLogging(eventLogging);
+        events.publish(GameEventType.GAME_STARTED);
+        events.publishValue(GameEventType.DICE_SEED, 0, dice.getSeed());
+    }
+
+    private static int maxPlayerId(Player[] players) {
+        int max = 0;
+        for (Player p : players) {
+            max = Math.max(max, p.getPlayerId());
+        }
+        return max;
     }
 
     public void startAuction(Property property) {
         this.auctionManager = new AuctionManager(property, players, this);
-        addEvent("AUCTION_STARTED: Auction for " + property.getName() + " started. Minimum bid: $10");
+        events.publish(GameEventType.AUCTION_STARTED, 0, 0, property.getPropertyId(), AuctionManager.MIN_BID);
     }
 
     public void endAuction() {
         if (auctionManager != null) {
             auctionManager.forceEndAuction();
             Property property = auctionManager.getProperty();
-            Player winner = auctionManager.getCurrentWinner();
-            if (winner != null) {
-                addEvent("AUCTION_ENDED: " + winner.getName() + " won " + property.getName() + " for $" + auctionManager.getCurrentHighestBid());
+            if (property.getOwnerId() != null) {
+                events.publish(GameEventType.AUCTION_ENDED, property.getOwnerId(), 0, property.getPropertyId(),
+                        auctionManager.getPricePaid());
             }
             auctionManager = null;
         }
@@ -54,14 +91,32 @@ public class GameState {
         return auctionManager;
     }
 
-    public void addEvent(String event) {
-        eventLog.add(event);
-        System.out.println("LOG: " + event);
+    public GameEventBus getEvents() {
+        return events;
+    }
+
+    public void setEventLogging(boolean eventLogging) {
+        if (eventLogging == this.eventLogging) return;
+        this.eventLogging = eventLogging;
+        if (eventLogging) events.subscribe(consoleLog);
+        else events.unsubscribe(consoleLog);
     }
 
-    public String getLastEvent() {
-        if (eventLog.isEmpty()) return "";
-        return eventLog.get(eventLog.size() - 1);
+    public int getEventCount() {
+        return events.getEventCount();
+    }
+
+    /** The journaling subscriber: hands the effects the recorder tracks to it. */
+    private void record(GameEvent event) {
+        switch (event.getType()) {
+            case ROLL, UTILITY_ROLL ->
+                    recorder.onRoll(event.getPlayerId(), event.getDie1(), event.getDie2(), event.getValue());
+            case RENT_PAID -> recorder.onRent(event.getPlayerId(), event.getOtherPlayerId(), event.getAmount());
+            case CARD_DRAWN -> recorder.onCardDrawn(event.getPlayerId(), event.getValue() == 1, event.getText());
+            case AUCTION_ENDED -> recorder.onAuctionWon(event.getPlayerId(), event.getPropertyId(), event.getAmount());
+            case BANKRUPT -> recorder.onBankruptcy(event.getPlayerId(), event.getOtherPlayerId());
+            default -> { }
+        }
     }
 
     public Player getPlayerById(int id) {
@@ -72,19 +127,31 @@ public class GameState {
     }
 
     public Property getPropertyById(int id) {
-        var tile = board.getTileAt(id);
-        if (tile != null && tile.getTileData() instanceof Property) {
-            return (Property) tile.getTileData();
-        }
-        return null;
+        return board.getProperty(id);
     }
 
     public Player[] getPlayers() { return players; }
     public Board getBoard() { return board; }
     public CardDeck getCardDeck() { return cardDeck; }
+    public Dice getDice() { return dice; }
+    public GameRecorder getRecorder() { return recorder; }
+
+    /** The recorder is subscribed to the event bus while it is not NONE. */
+    public void setRecorder(GameRecorder recorder) {
+        if ((this.recorder == GameRecorder.NONE) != (recorder == GameRecorder.NONE)) {
+            if (recorder == GameRecorder.NONE) events.unsubscribe(recorderBridge);
+            else events.subscribe(recorderBridge);
+        }
+        this.recorder = recorder;
+    }
     public TurnManager getTurnManager() { return turnManager; }
     public UndoManager getUndoManager() { return undoManager; }
     public TransactionGraph getTransactionGraph() { return transactionGraph; }
+    /** Kept in order as wealth changes; read it with topK(). */
+    public PlayerMaxHeap getWealthRanking() { return wealthRanking; }
+
+    /** Changes whenever a balance, a holding or the transaction graph changes. */
+    public long getLeaderboardVersion() { return wealthVersion + transactionGraph.getVersion(); }
 
     public TradeOffer getPendingTrade() { return pendingTrade; }
     public void setPendingTrade(TradeOffer offer) { this.pendingTrade = offer; }
@@ -95,9 +162,14 @@ public class GameState {
         for (Player p : players) {
             if (p.getStatus() != ir.monopoly.server.player.PlayerStatus.BANKRUPT) activeCount++;
         }
-        if (activeCount <= 1) addEvent("GAME_OVER");
+        if (activeCount <= 1) {
+            gameOver = true;
+            events.publish(GameEventType.GAME_OVER);
+        }
     }
 
+    public boolean isGameOver() { return gameOver; }
+
     public void updatePlayerRankings(Player p) {
     }
 }
\ No newline at end of file
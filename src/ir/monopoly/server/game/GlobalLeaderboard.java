@@ -0,0 +1,182 @@
+package ir.monopoly.server.game;
+
+import ir.monopoly.server.player.Player;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-wide ranking of the players of every room by wealth, properties owned and net
+ * rent collected. Rooms publish their players' standings from their own threads after
+ * each command; every metric is kept ordered in a ConcurrentSkipListSet, so rooms do
+ * not contend on a lock. Readers get an immutable Snapshot of the top K through a
+ * volatile field, rebuilt by the first reader that finds it stale.
+ */
+public class GlobalLeaderboard {
+    public static final int DEFAULT_K = 10;
+
+    public enum Metric {
+        WEALTH, PROPERTIES, NET_RENT;
+
+        private static final Metric[] VALUES = values();
+    }
+
+    /** One player's figures as last published by their room. Immutable. */
+    public static class Standing {
+        private final int roomId;
+        private final int playerId;
+        private final String name;
+        private final long[] values;
+
+        Standing(int roomId, int playerId, String name, long wealth, long properties, long netRent) {
+            this.roomId = roomId;
+            this.playerId = playerId;
+            this.name = name;
+            this.values = new long[]{wealth, properties, netRent};
+        }
+
+        public int getRoomId() { return roomId; }
+        public int getPlayerId() { return playerId; }
+        public String getName() { return name; }
+        public long getValue(Metric metric) { return values[metric.ordinal()]; }
+
+        private boolean sameFigures(long wealth, long properties, long netRent) {
+            return values[0] == wealth && values[1] == properties && values[2] == netRent;
+        }
+    }
+
+    /** The top K of every metric at one moment. */
+    public static class Snapshot {
+        private final long version;
+        private final Standing[][] top;
+
+        private Snapshot(long version, Standing[][] top) {
+            this.version = version;
+            this.top = top;
+        }
+
+        public long getVersion() { return version; }
+        public Standing[] getTop(Metric metric) { return top[metric.ordinal()].clone(); }
+        public int size(Metric metric) { return top[metric.ordinal()].length; }
+        public Standing get(Metric metric, int rank) { return top[metric.ordinal()][rank]; }
+    }
+
+    private final int k;
+    private final ConcurrentHashMap<Long, Standing> latest = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Standing>[] rankings;
+    private final AtomicBoolean stale = new AtomicBoolean(false);
+    private volatile Snapshot snapshot;
+    private long version = 0;
+
+    public GlobalLeaderboard() {
+        this(DEFAULT_K);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public GlobalLeaderboard(int k) {
+        this.k = k;
+        this.rankings = new ConcurrentSkipListSet[Metric.VALUES.length];
+        for (Metric metric : Metric.VALUES) {
+            Comparator<Standing> order = Comparator.<Standing>comparingLong(s -> -s.getValue(metric))
+                    .thenComparingInt(Standing::getRoomId)
+                    .thenComparingInt(Standing::getPlayerId);
+            rankings[metric.ordinal()] = new ConcurrentSkipListSet<>(order);
+        }
+        this.snapshot = build();
+    }
+
+    private static long key(int roomId, int playerId) {
+        return ((long) roomId << 32) | (playerId & 0xFFFFFFFFL);
+    }
+
+    /** Called on the room's thread; players whose figures did not change are skipped. */
+    public void publish(int roomId, GameState gameState) {
+        for (Player p : gameState.getPlayers()) {
+            long wealth = p.getTotalWealth();
+            long properties = p.getOwnedProperties().size();
+            long netRent = gameState.getTransactionGraph().getNetRent(p.getPlayerId());
+            Standing old = latest.get(key(roomId, p.getPlayerId()));
+            if (old != null && old.sameFigures(wealth, properties, netRent)) continue;
+            replace(old, new Standing(roomId, p.getPlayerId(), p.getName(), wealth, properties, netRent));
+        }
+    }
+
+    /** Drops a closed room's players. */
+    public void removeRoom(int roomId, GameState gameState) {
+        for (Player p : gameState.getPlayers()) {
+            Standing old = latest.remove(key(roomId, p.getPlayerId()));
+            if (old != null) replace(old, null);
+        }
+    }
+
+    private void replace(Standing old, Standing current) {
+        for (ConcurrentSkipListSet<Standing> ranking : rankings) {
+            if (old != null) ranking.remove(old);
+            if (current != null) ranking.add(current);
+        }
+        if (current != null) latest.put(key(current.getRoomId(), current.getPlayerId()), current);
+        stale.set(true);
+    }
+
+    public Snapshot getSnapshot() {
+        if (stale.get() && stale.compareAndSet(true, false)) {
+            rebuild();
+        }
+        return snapshot;
+    }
+
+    private synchronized void rebuild() {
+        snapshot = build();
+    }
+
+    private Snapshot build() {
+        Standing[][] top = new Standing[Metric.VALUES.length][];
+        for (Metric metric : Metric.VALUES) {
+            ConcurrentSkipListSet<Standing> ranking = rankings[metric.ordinal()];
+            Standing[] leaders = new Standing[k];
+            long[] keys = new long[k];
+            int n = 0;
+            for (Iterator<Standing> it = ranking.iterator(); it.hasNext() && n < k; ) {
+                Standing next = it.next();
+                // A concurrent replace() can leave both the old and the new standing in the set.
+                long nextKey = key(next.getRoomId(), next.getPlayerId());
+                if (contains(keys, n, nextKey)) continue;
+                keys[n] = nextKey;
+                leaders[n++] = next;
+            }
+            top[metric.ordinal()] = n == k ? leaders : Arrays.copyOf(leaders, n);
+        }
+        return new Snapshot(++version, top);
+    }
+
+    private static boolean contains(long[] keys, int n, long key) {
+        for (int i = 0; i < n; i++) {
+            if (keys[i] == key) return true;
+        }
+        return false;
+    }
+
+    public int getTrackedPlayers() {
+        return latest.size();
+    }
+
+    public String report() {
+        Snapshot s = getSnapshot();
+        StringBuilder sb = new StringBuilder();
+        sb.append("🌍 GLOBAL LEADERBOARD (").append(latest.size()).append(" players)\n");
+        for (Metric metric : Metric.VALUES) {
+            sb.append("\nTOP ").append(metric).append(":\n");
+            if (s.size(metric) == 0) sb.append("No players yet.\n");
+            for (int rank = 0; rank < s.size(metric); rank++) {
+                Standing st = s.get(metric, rank);
+                sb.append(rank + 1).append(". ").append(st.getName())
+                        .append(" (room ").append(st.getRoomId()).append("): ")
+                        .append(st.getValue(metric)).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+}
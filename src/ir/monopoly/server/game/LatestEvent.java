@@ -0,0 +1,23 @@
+package ir.monopoly.server.game;
+
+/**
+ * Keeps a copy of the newest event for the network sync, which tells clients about the
+ * last thing that happened since it last ran.
+ */
+class LatestEvent implements GameEventListener {
+    private final GameEvent latest = new GameEvent();
+    private boolean unseen = false;
+
+    @Override
+    public void onEvent(GameEvent event) {
+        latest.copyFrom(event);
+        unseen = true;
+    }
+
+    /** The newest event if it arrived after the previous call, otherwise null. */
+    GameEvent takeNew() {
+        if (!unseen) return null;
+        unseen = false;
+        return latest;
+    }
+}
@@ -1,6 +1,6 @@
 package ir.monopoly.server.game;
 
-import ir.monopoly.server.datastructure.PlayerMaxHeap;
+import ir.monopoly.server.datastructure.TransactionWindow;
 import ir.monopoly.server.player.Player;
 
 public class LeaderboardManager {
@@ -35,24 +35,50 @@ public class LeaderboardManager {
         return sb.toString();
     }
 
-    private static String getTopByWealth(GameState gameState) {
-        PlayerMaxHeap maxHeap = new PlayerMaxHeap(gameState.getPlayers().length);
+    public static String getCashFlowReport(GameState gameState) {
         StringBuilder sb = new StringBuilder();
-
-        for (Player p : gameState.getPlayers()) {
-            if (p != null) {
-                maxHeap.insert(p);
+        TransactionWindow[] windows = gameState.getTransactionGraph().getWindows();
+        if (windows.length == 0) return "No cash-flow windows.\n";
+
+        for (TransactionWindow window : windows) {
+            sb.append("💹 CASH FLOW (").append(window.getLabel()).append("):\n");
+            int[] from = new int[3];
+            int[] to = new int[3];
+            long[] amounts = new long[3];
+            int pairs = window.topPairs(from, to, amounts);
+            if (pairs == 0) sb.append("No payments.\n");
+            for (int i = 0; i < pairs; i++) {
+                sb.append(i + 1).append(". ").append(partyName(gameState, from[i]))
+                        .append(" -> ").append(partyName(gameState, to[i]))
+                        .append(": $").append(amounts[i]).append("\n");
             }
+            for (int id = 0; id < window.getPropertyCount(); id++) {
+                long rent = window.getRentReceived(id);
+                if (rent > 0) {
+                    sb.append("  Rent on ").append(gameState.getPropertyById(id).getName())
+                            .append(": $").append(rent).append("\n");
+                }
+            }
+            sb.append("\n");
         }
+        return sb.toString();
+    }
+
+    private static String partyName(GameState gameState, int id) {
+        Player p = gameState.getPlayerById(id);
+        return p == null ? "Bank" : p.getName();
+    }
+
+    private static String getTopByWealth(GameState gameState) {
+        StringBuilder sb = new StringBuilder();
+        Player[] top = new Player[3];
+        int found = gameState.getWealthRanking().topK(top);
 
-        int count = 1;
-        while (count <= 3) {
-            Player p = maxHeap.extractMax();
-            if (p == null) break;
+        for (int count = 1; count <= found; count++) {
+            Player p = top[count - 1];
             sb.append(count).append(". ").append(p.getName())
                     .append(" - Total: $").append(p.getTotalWealth())
                     .append(" (Cash: $").append(p.getBalance()).append(")\n");
-            count++;
         }
 
         if (sb.length() == 0) {
@@ -70,13 +96,12 @@ public class LeaderboardManager {
 
         for (Player p : players) {
             if (p != null) {
-                final int[] count = {0};
-                p.getOwnedProperties().forEach(prop -> count[0]++);
+                int count = p.getOwnedProperties().size();
 
-                sb.append(p.getName()).append(": ").append(count[0]).append(" properties\n");
+                sb.append(p.getName()).append(": ").append(count).append(" properties\n");
 
-                if (count[0] > maxProperties) {
-                    maxProperties = count[0];
+                if (count > maxProperties) {
+                    maxProperties = count;
                     topPlayer = p;
                 }
             }
@@ -98,8 +123,8 @@ public class LeaderboardManager {
 
         for (Player p : gameState.getPlayers()) {
             if (p != null) {
-                int paid = gameState.getTransactionGraph().getTotalPaidBy(p.getPlayerId());
-                int received = gameState.getTransactionGraph().getTotalReceivedBy(p.getPlayerId());
+                long paid = gameState.getTransactionGraph().getTotalPaidBy(p.getPlayerId());
+                long received = gameState.getTransactionGraph().getTotalReceivedBy(p.getPlayerId());
 
                 if (paid > 0 || received > 0) {
                     hasTransactions = true;
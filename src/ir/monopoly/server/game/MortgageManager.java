@@ -18,7 +18,7 @@ public class MortgageManager {
 
         property.setMortgaged(true);
         player.changeBalance(property.getMortgageValue());
-        gameState.addEvent(player.getName() + " mortgaged " + property.getName() + " for $" + property.getMortgageValue());
+        gameState.getEvents().publish(GameEventType.MORTGAGED, player.getPlayerId(), 0, property.getPropertyId(), property.getMortgageValue());
         return "SUCCESS";
     }
 
@@ -37,7 +37,7 @@ public class MortgageManager {
 
         player.changeBalance(-unmortgageCost);
         property.setMortgaged(false);
-        gameState.addEvent(player.getName() + " unmortgaged " + property.getName() + " for $" + unmortgageCost);
+        gameState.getEvents().publish(GameEventType.UNMORTGAGED, player.getPlayerId(), 0, property.getPropertyId(), unmortgageCost);
         return "SUCCESS";
     }
 }
\ No newline at end of file
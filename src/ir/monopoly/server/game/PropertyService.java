@@ -11,7 +11,7 @@ public class PropertyService {
             player.changeBalance(-property.getPurchasePrice());
             player.addProperty(property);
             property.setOwner(player.getPlayerId());
-            gameState.addEvent(player.getName() + " bought " + property.getName() + " for $" + property.getPurchasePrice());
+            gameState.getEvents().publish(GameEventType.PROPERTY_BOUGHT, player.getPlayerId(), 0, property.getPropertyId(), property.getPurchasePrice());
             return true;
         }
         return false;
@@ -22,9 +22,7 @@ public class PropertyService {
         if (property.getOwnerId() == null || property.getOwnerId() != player.getPlayerId())
             return "You don't own this property!";
 
-        int ownedInGroup = player.getOwnedProperties().countColorGroup(property.getColorGroup());
-        int required = getGroupSize(property.getColorGroup());
-        if (ownedInGroup < required)
+        if (!player.ownsFullGroup(property.getGroup()))
             return "You need the full color set to build!";
 
         if (property.hasHotel()) return "Already has a hotel!";
@@ -33,16 +31,11 @@ public class PropertyService {
         player.changeBalance(-property.getHouseCost());
         if (property.getHouseCount() < 4) {
             property.addHouse();
-            gameState.addEvent(player.getName() + " built a house on " + property.getName());
+            gameState.getEvents().publish(GameEventType.HOUSE_BUILT, player.getPlayerId(), 0, property.getPropertyId(), property.getHouseCost());
         } else {
             property.addHotel();
-            gameState.addEvent(player.getName() + " built a HOTEL on " + property.getName());
+            gameState.getEvents().publish(GameEventType.HOTEL_BUILT, player.getPlayerId(), 0, property.getPropertyId(), property.getHouseCost());
         }
         return "SUCCESS";
     }
-
-    private static int getGroupSize(String colorGroup) {
-        if (colorGroup.equalsIgnoreCase("Brown") || colorGroup.equalsIgnoreCase("Dark Blue")) return 2;
-        return 3;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package ir.monopoly.server.game;
+
+import ir.monopoly.server.board.Board;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.player.PlayerStatus;
+
+/**
+ * The jail and movement rules of a roll, shared by GameController and the headless
+ * SimulationEngine so both play by the same rules.
+ */
+public class RollResolver {
+
+    public static final int JAIL_FINE = 50;
+    public static final int MAX_JAIL_TURNS = 3;
+
+    public enum JailOutcome {
+        NOT_IN_JAIL,
+        RELEASED_ON_DOUBLES,
+        USED_JAIL_CARD,
+        PAID_FINE,
+        STAYED_IN_JAIL
+    }
+
+    /** A Get Out of Jail Free card is only played when the roll is not doubles. */
+    public static JailOutcome resolveJail(Player player, Dice dice, CardDeck deck) {
+        if (player.getStatus() != PlayerStatus.IN_JAIL) return JailOutcome.NOT_IN_JAIL;
+
+        if (dice.isDoubles()) {
+            player.releaseFromJail();
+            return JailOutcome.RELEASED_ON_DOUBLES;
+        }
+
+        if (deck.useJailCard(player)) {
+            player.releaseFromJail();
+            return JailOutcome.USED_JAIL_CARD;
+        }
+
+        player.incrementJailTurns();
+        if (player.getJailTurns() >= MAX_JAIL_TURNS) {
+            player.changeBalance(-JAIL_FINE);
+            player.releaseFromJail();
+            return JailOutcome.PAID_FINE;
+        }
+        return JailOutcome.STAYED_IN_JAIL;
+    }
+
+    public static int move(Player player, int steps, Board board) {
+        int newPos = board.advance(player.getCurrentPosition(), steps);
+        player.setCurrentPosition(newPos);
+        return newPos;
+    }
+}
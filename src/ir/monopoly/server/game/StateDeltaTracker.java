@@ -0,0 +1,144 @@
+package ir.monopoly.server.game;
+
+import ir.monopoly.server.board.Board;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.player.PlayerStatus;
+import ir.monopoly.server.property.Property;
+import java.util.Arrays;
+
+/**
+ * Remembers what every client was last told and, on each sync, reports only the
+ * player fields and property holdings that changed since then.
+ */
+public class StateDeltaTracker {
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private final GameState gameState;
+    private final int[] lastBalance;
+    private final int[] lastPosition;
+    private final int[] lastJailTurns;
+    private final PlayerStatus[] lastStatus;
+    private final int[] lastPropertyState;
+    private final boolean[] propertiesDirty;
+
+    public static class Delta {
+        private final String players;
+        private final boolean[] propertiesChanged;
+        private final String bankruptcies;
+
+        private Delta(String players, boolean[] propertiesChanged, String bankruptcies) {
+            this.players = players;
+            this.propertiesChanged = propertiesChanged;
+            this.bankruptcies = bankruptcies;
+        }
+
+        public String getPlayers() { return players; }
+        public boolean propertiesChangedFor(int playerIndex) { return propertiesChanged[playerIndex]; }
+        public String getBankruptcies() { return bankruptcies; }
+    }
+
+    public StateDeltaTracker(GameState gameState) {
+        this.gameState = gameState;
+        int playerCount = gameState.getPlayers().length;
+        this.lastBalance = filled(playerCount);
+        this.lastPosition = filled(playerCount);
+        this.lastJailTurns = filled(playerCount);
+        this.lastStatus = new PlayerStatus[playerCount];
+        this.lastPropertyState = filled(gameState.getBoard().getSize());
+        this.propertiesDirty = new boolean[playerCount];
+    }
+
+    private static int[] filled(int size) {
+        int[] values = new int[size];
+        Arrays.fill(values, UNKNOWN);
+        return values;
+    }
+
+    public Delta collect() {
+        Player[] players = gameState.getPlayers();
+        markDirtyHoldings(players);
+
+        StringBuilder playersDelta = new StringBuilder();
+        StringBuilder bankruptcies = new StringBuilder();
+        for (int i = 0; i < players.length; i++) {
+            Player p = players[i];
+            int mark = playersDelta.length();
+            boolean any = false;
+
+            if (p.getBalance() != lastBalance[i]) {
+                any = appendField(playersDelta, mark, p, any, "balance", String.valueOf(p.getBalance()));
+                lastBalance[i] = p.getBalance();
+            }
+            if (p.getCurrentPosition() != lastPosition[i]) {
+                any = appendField(playersDelta, mark, p, any, "position", String.valueOf(p.getCurrentPosition()));
+                lastPosition[i] = p.getCurrentPosition();
+            }
+            if (p.getStatus() != lastStatus[i]) {
+                any = appendField(playersDelta, mark, p, any, "status", p.getStatus().toString());
+                if (p.getStatus() == PlayerStatus.BANKRUPT && lastStatus[i] != null) {
+                    if (bankruptcies.length() > 0) bankruptcies.append("\n");
+                    bankruptcies.append("💀 ").append(p.getName()).append(" went BANKRUPT!");
+                }
+                lastStatus[i] = p.getStatus();
+            }
+            if (p.getJailTurns() != lastJailTurns[i]) {
+                appendField(playersDelta, mark, p, any, "jailTurns", String.valueOf(p.getJailTurns()));
+                lastJailTurns[i] = p.getJailTurns();
+            }
+        }
+
+        boolean[] changed = propertiesDirty.clone();
+        Arrays.fill(propertiesDirty, false);
+
+        return new Delta(playersDelta.toString(), changed, bankruptcies.toString());
+    }
+
+    private boolean appendField(StringBuilder sb, int mark, Player p, boolean any, String field, String value) {
+        if (!any) {
+            if (mark > 0) sb.append("|");
+            sb.append(p.getPlayerId()).append(":");
+        } else {
+            sb.append(",");
+        }
+        sb.append(field).append("=").append(value);
+        return true;
+    }
+
+    private void markDirtyHoldings(Player[] players) {
+        Board board = gameState.getBoard();
+        for (int id = 0; id < board.getSize(); id++) {
+            Property property = board.getProperty(id);
+            if (property == null) continue;
+
+            int state = encode(property);
+            if (state != lastPropertyState[id]) {
+                markOwnerDirty(players, decodeOwner(lastPropertyState[id]));
+                markOwnerDirty(players, property.getOwnerId() == null ? 0 : property.getOwnerId());
+                lastPropertyState[id] = state;
+            }
+        }
+        for (int i = 0; i < players.length; i++) {
+            if (lastStatus[i] == null) propertiesDirty[i] = true;
+        }
+    }
+
+    private void markOwnerDirty(Player[] players, int ownerId) {
+        if (ownerId <= 0) return;
+        for (int i = 0; i < players.length; i++) {
+            if (players[i].getPlayerId() == ownerId) {
+                propertiesDirty[i] = true;
+                return;
+            }
+        }
+    }
+
+    private static int encode(Property property) {
+        int owner = property.getOwnerId() == null ? 0 : property.getOwnerId();
+        return (owner << 8) | (property.getHouseCount() << 2) |
+                (property.hasHotel() ? 2 : 0) | (property.isMortgaged() ? 1 : 0);
+    }
+
+    private static int decodeOwner(int state) {
+        return state == UNKNOWN ? 0 : state >>> 8;
+    }
+}
@@ -0,0 +1,13 @@
+package ir.monopoly.server.game;
+
+public enum SyncMode {
+    FULL,
+    DELTA;
+
+    public static final String PROPERTY = "monopoly.sync";
+
+    public static SyncMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY, "delta");
+        return value.equalsIgnoreCase("full") ? FULL : DELTA;
+    }
+}
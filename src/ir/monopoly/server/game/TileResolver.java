@@ -1,54 +1,64 @@
 package ir.monopoly.server.game;
 
-import ir.monopoly.server.board.Tile;
+import ir.monopoly.server.board.Board;
 import ir.monopoly.server.board.TileType;
 import ir.monopoly.server.player.Player;
 import ir.monopoly.server.player.PlayerStatus;
+import ir.monopoly.server.property.ColorGroup;
 import ir.monopoly.server.property.Property;
 
 public class TileResolver {
+    private static final TileType[] TYPES = TileType.values();
+    private static final int RAILROAD = ColorGroup.RAILROAD.ordinal();
+    private static final int UTILITY = ColorGroup.UTILITY.ordinal();
 
-    public static void resolveTile(Tile tile, GameState gameState) {
-        Player player = gameState.getTurnManager().getCurrentPlayer();
-
-        if (tile.getTileType() == TileType.CARD) {
-            Card card = tile.getName().contains("Chance") ?
-                    gameState.getCardDeck().drawChance() :
-                    gameState.getCardDeck().drawCommunityChest();
-            card.execute(player, gameState);
-            gameState.addEvent("ACTION_CARD:" + card.getDescription());
-            return;
-        }
-
-        if (tile.getTileType() == TileType.JAIL && tile.getTileId() == 30) {
-            player.setStatus(PlayerStatus.IN_JAIL);
-            player.setCurrentPosition(10);
-            player.resetJailTurns();
-            gameState.addEvent("ACTION_JAIL:" + player.getName() + " was sent to Jail!");
-            return;
-        }
-
-        if (tile.getTileType() == TileType.TAX) {
-            int tax = (tile.getTileId() == 4) ? 200 : 100;
-            player.changeBalance(-tax);
-            gameState.addEvent("ACTION_TAX:Paid $" + tax + " Tax.");
-            return;
-        }
+    public static void resolveTile(int position, GameState gameState) {
+        resolveTile(position, gameState.getTurnManager().getCurrentPlayer(), gameState);
+    }
 
-        if (tile.getTileType() == TileType.PROPERTY) {
-            handleProperty(tile, gameState, player);
+    public static void resolveTile(int position, Player player, GameState gameState) {
+        Board board = gameState.getBoard();
+        switch (TYPES[board.getTypeOrdinal(position)]) {
+            case CARD: {
+                boolean chance = board.isChance(position);
+                Card card = chance ? gameState.getCardDeck().drawChance() : gameState.getCardDeck().drawCommunityChest();
+                gameState.getEvents().publishCard(player.getPlayerId(), chance, card.getDescription());
+                card.execute(player, gameState);
+                break;
+            }
+            case JAIL: {
+                int jail = board.getJailPosition();
+                if (position != jail) {
+                    player.setStatus(PlayerStatus.IN_JAIL);
+                    player.setCurrentPosition(jail);
+                    player.resetJailTurns();
+                    gameState.getEvents().publish(GameEventType.SENT_TO_JAIL, player.getPlayerId(), 0, -1, 0);
+                }
+                break;
+            }
+            case TAX: {
+                int tax = board.getTax(position);
+                player.changeBalance(-tax);
+                gameState.getEvents().publish(GameEventType.TAX_PAID, player.getPlayerId(), 0, -1, tax);
+                break;
+            }
+            case PROPERTY:
+                handleProperty(position, gameState, player);
+                break;
+            default:
+                break;
         }
     }
 
-    private static void handleProperty(Tile tile, GameState gs, Player visitor) {
-        Property prop = (Property) tile.getTileData();
+    private static void handleProperty(int position, GameState gs, Player visitor) {
+        Property prop = gs.getBoard().getProperty(position);
         Integer ownerId = prop.getOwnerId();
 
         if (ownerId == null) {
-            gs.addEvent("ACTION_OFFER:Unowned " + prop.getName() + " for $" + prop.getPurchasePrice());
+            gs.getEvents().publish(GameEventType.PURCHASE_OFFER, visitor.getPlayerId(), 0, prop.getPropertyId(), prop.getPurchasePrice());
         } else if (ownerId != visitor.getPlayerId() && !prop.isMortgaged()) {
             Player owner = gs.getPlayerById(ownerId);
-            int rent = calculateRent(prop, gs, owner);
+            int rent = calculateRent(position, prop, gs, visitor, owner);
 
             if (visitor.getBalance() < rent) {
                 BankruptcyManager.processBankruptcy(visitor, owner, gs);
@@ -57,23 +67,24 @@ public class TileResolver {
 
             visitor.changeBalance(-rent);
             owner.changeBalance(rent);
-            gs.getTransactionGraph().recordTransaction(visitor.getPlayerId(), ownerId, rent);
-            gs.addEvent("ACTION_RENT:Paid $" + rent + " rent to " + owner.getName());
+            gs.getTransactionGraph().recordRent(visitor.getPlayerId(), ownerId, prop.getPropertyId(), rent);
+            gs.getEvents().publish(GameEventType.RENT_PAID, visitor.getPlayerId(), ownerId, prop.getPropertyId(), rent);
         }
     }
 
-    private static int calculateRent(Property prop, GameState gs, Player owner) {
-        if (prop.getColorGroup().equalsIgnoreCase("Railroad")) {
-            int count = owner.getOwnedProperties().countColorGroup("Railroad");
-            return (int) (25 * Math.pow(2, count - 1));
-        } else if (prop.getColorGroup().equalsIgnoreCase("Utility")) {
-            int diceSum = new Dice().roll()[0] + new Dice().roll()[1];
-            int count = owner.getOwnedProperties().countColorGroup("Utility");
-            return (count == 1) ? diceSum * 4 : diceSum * 10;
+    private static int calculateRent(int position, Property prop, GameState gs, Player visitor, Player owner) {
+        int group = gs.getBoard().getGroupOrdinal(position);
+        if (group == RAILROAD) {
+            int[] table = prop.getRentTable();
+            return table[Math.min(owner.countInGroup(ColorGroup.RAILROAD), table.length - 1)];
+        } else if (group == UTILITY) {
+            Dice dice = gs.getDice();
+            int diceSum = dice.roll();
+            gs.getEvents().publishRoll(GameEventType.UTILITY_ROLL, visitor.getPlayerId(), dice.getDie1(), dice.getDie2(), dice.getRollIndex());
+            int[] multipliers = prop.getRentTable();
+            return diceSum * multipliers[Math.min(owner.countInGroup(ColorGroup.UTILITY), multipliers.length - 1)];
         } else {
-            int ownedInSet = owner.getOwnedProperties().countColorGroup(prop.getColorGroup());
-            int required = (prop.getColorGroup().equals("Brown") || prop.getColorGroup().equals("Dark Blue")) ? 2 : 3;
-            return prop.calculateRent(ownedInSet >= required);
+            return prop.calculateRent(owner.ownsFullGroup(prop.getGroup()));
         }
     }
 }
\ No newline at end of file
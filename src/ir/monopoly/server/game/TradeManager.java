@@ -10,19 +10,19 @@ public class TradeManager {
         Player sender = gameState.getPlayerById(offer.getFromPlayerId());
 
         if (sender.getBalance() < offer.getOfferedCash()) {
-            gameState.addEvent("TRADE_ERROR: Sender has insufficient funds.");
+            gameState.getEvents().publish(GameEventType.TRADE_INSUFFICIENT_FUNDS, sender.getPlayerId(), offer.getToPlayerId(), -1, offer.getOfferedCash());
             return;
         }
 
         for (Property p : offer.getOfferedProperties()) {
             if (p.isMortgaged()) {
-                gameState.addEvent("TRADE_ERROR: Cannot trade mortgaged properties.");
+                gameState.getEvents().publish(GameEventType.TRADE_MORTGAGED_PROPERTY, sender.getPlayerId(), offer.getToPlayerId(), p.getPropertyId(), 0);
                 return;
             }
         }
 
         gameState.setPendingTrade(offer);
-        gameState.addEvent("TRADE_PENDING: Trade proposed to Player " + offer.getToPlayerId());
+        gameState.getEvents().publish(GameEventType.TRADE_PENDING, sender.getPlayerId(), offer.getToPlayerId(), -1, offer.getOfferedCash());
     }
 
     public static void acceptTrade(GameState gameState) {
@@ -63,7 +63,7 @@ public class TradeManager {
             }
         }
 
-        gameState.addEvent("TRADE_SUCCESS: Trade between " + sender.getName() + " and " + receiver.getName() + " completed.");
+        gameState.getEvents().publish(GameEventType.TRADE_COMPLETED, sender.getPlayerId(), receiver.getPlayerId(), -1, offer.getOfferedCash());
         gameState.clearPendingTrade();
 
         gameState.getUndoManager().recordAction(new GameAction(
@@ -78,8 +78,9 @@ public class TradeManager {
     }
 
     public static void rejectTrade(GameState gameState) {
-        if (gameState.getPendingTrade() != null) {
-            gameState.addEvent("TRADE_REJECTED: The offer was declined.");
+        TradeOffer offer = gameState.getPendingTrade();
+        if (offer != null) {
+            gameState.getEvents().publish(GameEventType.TRADE_REJECTED, offer.getToPlayerId(), offer.getFromPlayerId(), -1, 0);
             gameState.clearPendingTrade();
         }
     }
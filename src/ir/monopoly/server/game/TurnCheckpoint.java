@@ -0,0 +1,154 @@
+package ir.monopoly.server.game;
+
+import ir.monopoly.server.board.Board;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.player.PlayerStatus;
+import ir.monopoly.server.property.Property;
+import java.util.Arrays;
+
+/**
+ * The mutable parts of a GameState at one moment: turn state, the open buy offer,
+ * per-player cash, position, status, jail turns and jail cards, per-property owner and
+ * buildings, and the card piles. The property and pile arrays are copy-on-write:
+ * capture() reuses the previous checkpoint's array when nothing in it changed, and
+ * restoring only touches the players and properties that differ from the live game.
+ *
+ * Not captured, because they are history rather than position: the dice stream, the
+ * transaction ledger and its windows.
+ */
+public final class TurnCheckpoint {
+    public static final int PLAYER_FIELDS = 5;
+    private static final PlayerStatus[] STATUSES = PlayerStatus.values();
+    private static final GamePhase[] PHASES = GamePhase.values();
+
+    private final int turnCounter;
+    private final int currentPlayerIndex;
+    private final int phase;
+    private final int consecutiveDoubles;
+    private final boolean lastRollDoubles;
+    private final int pendingPurchaseId;
+    private final int[] players;
+    private final int[] properties;
+    private final int[] chanceOrder;
+    private final int[] communityChestOrder;
+
+    public TurnCheckpoint(int turnCounter, int currentPlayerIndex, int phase, int consecutiveDoubles,
+                          boolean lastRollDoubles, int pendingPurchaseId, int[] players, int[] properties,
+                          int[] chanceOrder, int[] communityChestOrder) {
+        this.turnCounter = turnCounter;
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.phase = phase;
+        this.consecutiveDoubles = consecutiveDoubles;
+        this.lastRollDoubles = lastRollDoubles;
+        this.pendingPurchaseId = pendingPurchaseId;
+        this.players = players;
+        this.properties = properties;
+        this.chanceOrder = chanceOrder;
+        this.communityChestOrder = communityChestOrder;
+    }
+
+    /** Captures the game, sharing previous's arrays where they still match. previous may be null. */
+    static TurnCheckpoint capture(GameState gs, int pendingPurchaseId, TurnCheckpoint previous) {
+        TurnManager tm = gs.getTurnManager();
+        Player[] ps = gs.getPlayers();
+        int[] players = new int[ps.length * PLAYER_FIELDS];
+        for (int i = 0; i < ps.length; i++) {
+            Player p = ps[i];
+            int at = i * PLAYER_FIELDS;
+            players[at] = p.getBalance();
+            players[at + 1] = p.getCurrentPosition();
+            players[at + 2] = p.getStatus().ordinal();
+            players[at + 3] = p.getJailTurns();
+            players[at + 4] = (p.hasChanceJailCard() ? 1 : 0) | (p.hasCommunityJailCard() ? 2 : 0);
+        }
+
+        Board board = gs.getBoard();
+        int[] shared = previous == null ? null : previous.properties;
+        int[] properties = shared;
+        for (int id = 0; id < board.getSize(); id++) {
+            int state = encode(board.getProperty(id));
+            if (properties != null && properties[id] == state) continue;
+            if (properties == shared) properties = shared == null ? new int[board.getSize()] : shared.clone();
+            properties[id] = state;
+        }
+
+        CardDeck deck = gs.getCardDeck();
+        return new TurnCheckpoint(tm.getTurnCounter(), tm.getCurrentPlayerIndex(), tm.getCurrentPhase().ordinal(),
+                tm.getConsecutiveDoubles(), tm.wasLastRollDoubles(), pendingPurchaseId, players, properties,
+                reuse(deck.getChanceOrder(), previous == null ? null : previous.chanceOrder),
+                reuse(deck.getCommunityChestOrder(), previous == null ? null : previous.communityChestOrder));
+    }
+
+    private static int[] reuse(int[] current, int[] previous) {
+        return Arrays.equals(current, previous) ? previous : current;
+    }
+
+    /** [owner id][houses][hotel][mortgaged]; 0 for a tile without a property. */
+    private static int encode(Property property) {
+        if (property == null) return 0;
+        int owner = property.getOwnerId() == null ? 0 : property.getOwnerId();
+        return owner << 8 | property.getHouseCount() << 2 | (property.hasHotel() ? 2 : 0) | (property.isMortgaged() ? 1 : 0);
+    }
+
+    /** Puts the game back to this checkpoint; live is a capture of the game as it is now. */
+    void restore(GameState gs, TurnCheckpoint live) {
+        if (properties != live.properties) {
+            for (int id = 0; id < properties.length; id++) {
+                if (properties[id] != live.properties[id]) restoreProperty(gs, gs.getBoard().getProperty(id), live.properties[id], properties[id]);
+            }
+        }
+
+        Player[] ps = gs.getPlayers();
+        for (int i = 0; i < ps.length; i++) {
+            Player p = ps[i];
+            int at = i * PLAYER_FIELDS;
+            if (players[at] != p.getBalance()) p.changeBalance(players[at] - p.getBalance());
+            p.setCurrentPosition(players[at + 1]);
+            p.setStatus(STATUSES[players[at + 2]]);
+            p.setJailTurns(players[at + 3]);
+            p.setJailCards((players[at + 4] & 1) != 0, (players[at + 4] & 2) != 0);
+        }
+
+        CardDeck deck = gs.getCardDeck();
+        if (chanceOrder != live.chanceOrder || communityChestOrder != live.communityChestOrder) {
+            deck.restore(deck.getChanceDraws(), chanceOrder, deck.getCommunityChestDraws(), communityChestOrder);
+        }
+        gs.getTurnManager().restore(currentPlayerIndex, PHASES[phase], turnCounter, consecutiveDoubles, lastRollDoubles);
+    }
+
+    private static void restoreProperty(GameState gs, Property property, int from, int to) {
+        int houses = to >> 2 & 0x3F;
+        if (property.getHouseCount() > houses) property.removeHouses(property.getHouseCount() - houses);
+        while (property.getHouseCount() < houses) property.addHouse();
+        if ((to & 2) != 0 && !property.hasHotel()) property.addHotel();
+        if ((to & 2) == 0 && property.hasHotel()) property.removeHotel();
+        property.setMortgaged((to & 1) != 0);
+
+        int oldOwner = from >> 8;
+        int newOwner = to >> 8;
+        if (oldOwner == newOwner) return;
+        if (oldOwner != 0) gs.getPlayerById(oldOwner).removeProperty(property.getPropertyId());
+        property.clearOwner();
+        if (newOwner != 0) gs.getPlayerById(newOwner).addProperty(property);
+    }
+
+    /** True when both checkpoints hold the same game state. */
+    boolean sameState(TurnCheckpoint other) {
+        return turnCounter == other.turnCounter && currentPlayerIndex == other.currentPlayerIndex
+                && phase == other.phase && consecutiveDoubles == other.consecutiveDoubles
+                && lastRollDoubles == other.lastRollDoubles && pendingPurchaseId == other.pendingPurchaseId
+                && Arrays.equals(players, other.players) && Arrays.equals(properties, other.properties)
+                && Arrays.equals(chanceOrder, other.chanceOrder) && Arrays.equals(communityChestOrder, other.communityChestOrder);
+    }
+
+    public int getTurnCounter() { return turnCounter; }
+    public int getCurrentPlayerIndex() { return currentPlayerIndex; }
+    public int getPhase() { return phase; }
+    public int getConsecutiveDoubles() { return consecutiveDoubles; }
+    public boolean wasLastRollDoubles() { return lastRollDoubles; }
+    public int getPendingPurchaseId() { return pendingPurchaseId; }
+    public int[] getPlayers() { return players; }
+    public int[] getProperties() { return properties; }
+    public int[] getChanceOrder() { return chanceOrder; }
+    public int[] getCommunityChestOrder() { return communityChestOrder; }
+}
@@ -71,7 +71,19 @@ public class TurnManager {
         lastRollWasDoubles = false;
     }
 
+    public void restore(int currentPlayerIndex, GamePhase phase, int turnCounter,
+                        int consecutiveDoubles, boolean lastRollWasDoubles) {
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.currentPhase = phase;
+        this.turnCounter = turnCounter;
+        this.consecutiveDoubles = consecutiveDoubles;
+        this.lastRollWasDoubles = lastRollWasDoubles;
+    }
+
     public Player getCurrentPlayer() { return players[currentPlayerIndex]; }
+    public int getCurrentPlayerIndex() { return currentPlayerIndex; }
+    public int getConsecutiveDoubles() { return consecutiveDoubles; }
+    public boolean wasLastRollDoubles() { return lastRollWasDoubles; }
     public GamePhase getCurrentPhase() { return currentPhase; }
     public int getTurnCounter() { return turnCounter; }
 }
\ No newline at end of file
@@ -1,165 +1,272 @@
 package ir.monopoly.server.game;
 
-import ir.monopoly.server.datastructure.MyStack;
-import ir.monopoly.server.player.Player;
-import ir.monopoly.server.property.Property;
-
-
+/**
+ * Undo/redo history in parallel primitive ring buffers (type, player, target, delta,
+ * turn), oldest entry first. Entries before the cursor are behind the game, entries
+ * from the cursor on can be redone; a change drops the redo entries by moving the end
+ * back to the cursor, and once the history holds depth entries the oldest is
+ * overwritten. Consecutive movements or money changes of one player in the same turn
+ * merge into a single entry.
+ *
+ * Commands are bracketed by beforeChange and afterChange. The first change of a turn
+ * opens it with a checkpoint entry holding the game as the
+ * turn began (a TurnCheckpoint in the side array); the action entries after it are the
+ * turn's compact record. UNDO restores the checkpoint of the turn at the cursor, so a
+ * whole turn (or what the current turn did so far) comes back whatever it contained,
+ * and REDO restores the next turn's checkpoint, or the game as it was before the first
+ * undo for the newest turn. The redo entries are only dropped, and a turn only opened,
+ * once a command actually changes the game, so a failed or rejected command keeps
+ * them. A player leaving cannot be undone and clears the history.
+ *
+ * A movement stores the new position as target and new - old as delta; a trade stores
+ * the other player as target and the sender's net cash as delta; everything else
+ * stores the balance change as delta.
+ */
 public class UndoManager {
-    private final MyStack<GameAction> undoStack;
-    private final MyStack<GameAction> redoStack;
+    public static final String DEPTH_PROPERTY = "monopoly.undo.depth";
+    public static final int DEFAULT_DEPTH = 256;
+    private static final byte CHECKPOINT = -1;
+    private static final GameAction.ActionType[] TYPES = GameAction.ActionType.values();
+
     private final GameState gameState;
+    private final int depth;
+    private final byte[] types;
+    private final int[] playerIds;
+    private final int[] targetIds;
+    private final int[] deltas;
+    private final int[] turns;
+    private final TurnCheckpoint[] checkpoints;
+    private int start = 0;
+    private int cursor = 0;
+    private int end = 0;
+    private TurnCheckpoint redoTip;
+    private TurnCheckpoint staged;
+    private int restoredPendingPurchase = -1;
 
     public UndoManager(GameState gameState) {
+        this(gameState, Integer.getInteger(DEPTH_PROPERTY, DEFAULT_DEPTH));
+    }
+
+    public UndoManager(GameState gameState, int depth) {
+        if (depth < 1) throw new IllegalArgumentException("Undo depth must be positive: " + depth);
         this.gameState = gameState;
-        this.undoStack = new MyStack<>();
-        this.redoStack = new MyStack<>();
+        this.depth = depth;
+        this.types = new byte[depth];
+        this.playerIds = new int[depth];
+        this.targetIds = new int[depth];
+        this.deltas = new int[depth];
+        this.turns = new int[depth];
+        this.checkpoints = new TurnCheckpoint[depth];
+    }
+
+    /**
+     * Call before any command that may change the game. Stages the checkpoint the turn
+     * would open with; nothing is recorded until the command turns out to change the game.
+     */
+    public void beforeChange(int pendingPurchaseId) {
+        staged = null;
+        if (cursor < end) {
+            // After an undo the game is at the checkpoint under the cursor.
+            staged = checkpoints[slot(cursor)];
+            return;
+        }
+        int open = lastCheckpoint(end);
+        if (open >= 0 && turns[slot(open)] == gameState.getTurnManager().getTurnCounter()) return;
+        staged = TurnCheckpoint.capture(gameState, pendingPurchaseId, open < 0 ? null : checkpoints[slot(open)]);
+    }
+
+    /** Call after the command; records the staged checkpoint if the command changed the game. */
+    public void afterChange(int pendingPurchaseId) {
+        if (staged == null) return;
+        if (!TurnCheckpoint.capture(gameState, pendingPurchaseId, staged).sameState(staged)) commit();
+        staged = null;
+    }
+
+    private void commit() {
+        if (cursor < end) {
+            // Keep the checkpoint under the cursor as the opening of this turn and drop the rest.
+            cursor++;
+            end = cursor;
+            redoTip = null;
+        } else {
+            appendCheckpoint(staged);
+        }
+        staged = null;
     }
 
     public void recordAction(GameAction action) {
-        undoStack.push(action);
-        while (!redoStack.isEmpty()) {
-            redoStack.pop();
+        gameState.getRecorder().onAction(action);
+        if (staged != null) commit();
+        int turn = gameState.getTurnManager().getTurnCounter();
+        GameAction.ActionType type = action.getType();
+        int delta;
+        int target;
+        if (type == GameAction.ActionType.TRADE) {
+            delta = action.getRequestedCash() - action.getOfferedCash();
+            target = action.getOtherPlayerId();
+        } else {
+            delta = action.getNewValue() - action.getOldValue();
+            target = type == GameAction.ActionType.MOVEMENT ? action.getNewValue() : action.getTargetId();
         }
+
+        if (cursor > 0 && mergeable(type)) {
+            int top = slot(cursor - 1);
+            if (types[top] == type.ordinal() && playerIds[top] == action.getPlayerId() && turns[top] == turn) {
+                // A merged movement still starts where the first one did, even if a card moved the player between.
+                deltas[top] = type == GameAction.ActionType.MOVEMENT ? target - (targetIds[top] - deltas[top]) : deltas[top] + delta;
+                targetIds[top] = target;
+                end = cursor;
+                return;
+            }
+        }
+        append((byte) type.ordinal(), action.getPlayerId(), target, delta, turn, null);
     }
 
-    public boolean undo() {
-        if (undoStack.isEmpty()) {
-            gameState.addEvent("UNDO: No action to undo.");
-            return false;
+    private static boolean mergeable(GameAction.ActionType type) {
+        return type == GameAction.ActionType.MOVEMENT || type == GameAction.ActionType.MONEY_CHANGE;
+    }
+
+    private void appendCheckpoint(TurnCheckpoint checkpoint) {
+        int playerId = gameState.getPlayers()[checkpoint.getCurrentPlayerIndex()].getPlayerId();
+        append(CHECKPOINT, playerId, checkpoint.getPendingPurchaseId(), 0, checkpoint.getTurnCounter(), checkpoint);
+    }
+
+    private void append(byte type, int playerId, int target, int delta, int turn, TurnCheckpoint checkpoint) {
+        if (cursor == depth) {
+            checkpoints[start] = null;
+            start = (start + 1) % depth;
+            cursor--;
         }
+        int s = slot(cursor);
+        types[s] = type;
+        playerIds[s] = playerId;
+        targetIds[s] = target;
+        deltas[s] = delta;
+        turns[s] = turn;
+        checkpoints[s] = checkpoint;
+        cursor++;
+        end = cursor;
+    }
+
+    private int slot(int index) {
+        return (start + index) % depth;
+    }
 
-        GameAction action = undoStack.pop();
-        redoStack.push(action);
-
-        switch (action.getType()) {
-            case MONEY_CHANGE:
-                int diff = (Integer) action.getNewValue() - (Integer) action.getOldValue();
-                Player pMoney = gameState.getPlayerById(action.getPlayerId());
-                if (pMoney != null) {
-                    pMoney.changeBalance(-diff);
-                }
-                gameState.addEvent("UNDO: Money change reverted.");
-                return true;
-
-            case PROPERTY_PURCHASE:
-                Player pPurchase = gameState.getPlayerById(action.getPlayerId());
-                Property purchasedProp = gameState.getPropertyById(action.getTargetId());
-                if (pPurchase != null && purchasedProp != null) {
-                    pPurchase.changeBalance(purchasedProp.getPurchasePrice());
-                    pPurchase.removeProperty(purchasedProp.getPropertyId());
-                    purchasedProp.clearOwner();
-                    gameState.addEvent("UNDO: Property purchase reverted for " + purchasedProp.getName());
-                }
-                return true;
-
-            case CONSTRUCTION:
-                Player pBuild = gameState.getPlayerById(action.getPlayerId());
-                Property builtProp = gameState.getPropertyById(action.getTargetId());
-                if (pBuild != null && builtProp != null) {
-                    pBuild.changeBalance(builtProp.getHouseCost());
-                    if (builtProp.hasHotel()) {
-                        builtProp.removeHotel();
-                    } else {
-                        builtProp.removeHouses(1);
-                    }
-                    gameState.addEvent("UNDO: Construction on " + builtProp.getName() + " reverted.");
-                }
-                return true;
-
-            case MOVEMENT:
-                Player pMove = gameState.getPlayerById(action.getPlayerId());
-                if (pMove != null) {
-                    int oldPos = (Integer) action.getOldValue();
-                    pMove.setCurrentPosition(oldPos);
-                    gameState.addEvent("UNDO: Movement reverted to position " + oldPos);
-                }
-                return true;
-
-            case TRADE:
-                Player sender = gameState.getPlayerById(action.getPlayerId());
-                Player receiver = gameState.getPlayerById(action.getOtherPlayerId());
-
-                if (sender != null && receiver != null) {
-                    sender.changeBalance(action.getRequestedCash() - action.getOfferedCash());
-                    receiver.changeBalance(action.getOfferedCash() - action.getRequestedCash());
-
-                    for (Property p : action.getOfferedProperties()) {
-                        receiver.removeProperty(p.getPropertyId());
-                        sender.addProperty(p);
-                        p.setOwner(sender.getPlayerId());
-                    }
-                    for (Property p : action.getRequestedProperties()) {
-                        sender.removeProperty(p.getPropertyId());
-                        receiver.addProperty(p);
-                        p.setOwner(receiver.getPlayerId());
-                    }
-                    gameState.addEvent("UNDO: Trade reverted.");
-                }
-                return true;
-
-            default:
-                gameState.addEvent("UNDO: Action type not supported.");
-                return false;
+    /** Index of the last checkpoint entry before index, or -1. */
+    private int lastCheckpoint(int index) {
+        for (int i = index - 1; i >= 0; i--) {
+            if (types[slot(i)] == CHECKPOINT) return i;
         }
+        return -1;
     }
 
-    public boolean redo() {
-        if (redoStack.isEmpty()) {
-            gameState.addEvent("REDO: No action to redo.");
-            return false;
+    private int nextCheckpoint(int index) {
+        for (int i = index + 1; i < end; i++) {
+            if (types[slot(i)] == CHECKPOINT) return i;
         }
+        return end;
+    }
 
-        GameAction action = redoStack.pop();
-        undoStack.push(action);
-
-        switch (action.getType()) {
-            case MONEY_CHANGE:
-                int diff = (Integer) action.getNewValue() - (Integer) action.getOldValue();
-                Player pMoney = gameState.getPlayerById(action.getPlayerId());
-                if (pMoney != null) {
-                    pMoney.changeBalance(diff);
-                }
-                gameState.addEvent("REDO: Money change re-applied.");
-                return true;
-
-            case MOVEMENT:
-                Player pMove = gameState.getPlayerById(action.getPlayerId());
-                if (pMove != null) {
-                    int newPos = (Integer) action.getNewValue();
-                    pMove.setCurrentPosition(newPos);
-                    gameState.addEvent("REDO: Movement re-applied to position " + newPos);
-                }
-                return true;
-
-            case PROPERTY_PURCHASE:
-                Player pPurchase = gameState.getPlayerById(action.getPlayerId());
-                Property prop = gameState.getPropertyById(action.getTargetId());
-                if (pPurchase != null && prop != null) {
-                    pPurchase.changeBalance(-prop.getPurchasePrice());
-                    pPurchase.addProperty(prop);
-                    prop.setOwner(pPurchase.getPlayerId());
-                    gameState.addEvent("REDO: Property purchase re-applied.");
-                }
-                return true;
-
-            case CONSTRUCTION:
-                Player pBuild = gameState.getPlayerById(action.getPlayerId());
-                Property builtProp = gameState.getPropertyById(action.getTargetId());
-                if (pBuild != null && builtProp != null) {
-                    pBuild.changeBalance(-builtProp.getHouseCost());
-                    if (builtProp.getHouseCount() == 4) {
-                        builtProp.addHotel();
-                    } else {
-                        builtProp.addHouse();
-                    }
-                    gameState.addEvent("REDO: Construction re-applied.");
-                }
-                return true;
-
-            default:
-                gameState.addEvent("REDO: Action re-applied.");
-                return true;
+    public boolean undo(int pendingPurchaseId) {
+        if (gameState.isGameOver()) {
+            gameState.getEvents().publish(GameEventType.UNDO_REFUSED);
+            return false;
+        }
+        TurnCheckpoint live;
+        if (cursor == end) {
+            int open = lastCheckpoint(end);
+            if (open < 0) return nothing(GameEventType.NOTHING_TO_UNDO);
+            live = TurnCheckpoint.capture(gameState, pendingPurchaseId, checkpoints[slot(open)]);
+            if (!live.sameState(checkpoints[slot(open)])) {
+                redoTip = live;
+                return restore(open, live, GameEventType.UNDO);
+            }
+            // Nothing changed since the turn opened: undo the turn before it.
+            cursor = open;
+        } else {
+            live = checkpoints[slot(cursor)];
         }
+        int previous = lastCheckpoint(cursor);
+        if (previous < 0) return nothing(GameEventType.NOTHING_TO_UNDO);
+        return restore(previous, live, GameEventType.UNDO);
+    }
+
+    public boolean redo() {
+        if (cursor == end || checkpoints[slot(cursor)] == null) return nothing(GameEventType.NOTHING_TO_REDO);
+
+        TurnCheckpoint live = checkpoints[slot(cursor)];
+        int next = nextCheckpoint(cursor);
+        if (next < end) return restore(next, live, GameEventType.REDO);
+        if (redoTip == null) return nothing(GameEventType.NOTHING_TO_REDO);
+
+        TurnCheckpoint tip = redoTip;
+        redoTip = null;
+        apply(tip, live);
+        cursor = end;
+        gameState.getEvents().publishValue(GameEventType.REDO, 0, tip.getTurnCounter());
+        return true;
+    }
+
+    private boolean restore(int index, TurnCheckpoint live, GameEventType type) {
+        TurnCheckpoint target = checkpoints[slot(index)];
+        apply(target, live);
+        cursor = index;
+        gameState.getEvents().publishValue(type, 0, target.getTurnCounter());
+        return true;
+    }
+
+    private void apply(TurnCheckpoint target, TurnCheckpoint live) {
+        target.restore(gameState, live);
+        gameState.clearPendingTrade();
+        restoredPendingPurchase = target.getPendingPurchaseId();
+    }
+
+    private boolean nothing(GameEventType type) {
+        gameState.getEvents().publish(type);
+        return false;
+    }
+
+    public void clear() {
+        for (int i = 0; i < depth; i++) checkpoints[i] = null;
+        start = 0;
+        cursor = 0;
+        end = 0;
+        redoTip = null;
+        staged = null;
+    }
+
+    /** The buy offer that was open in the checkpoint the last undo or redo restored, or -1. */
+    public int getRestoredPendingPurchase() { return restoredPendingPurchase; }
+
+    public int getDepth() { return depth; }
+    public int getCursor() { return cursor; }
+    public int getUndoCount() { return cursor; }
+    public int getRedoCount() { return end - cursor; }
+
+    /** Entries are numbered from the oldest; a checkpoint entry has no action type. */
+    public int getHistorySize() { return end; }
+    public boolean isCheckpoint(int index) { return types[slot(index)] == CHECKPOINT; }
+    public GameAction.ActionType getType(int index) { return isCheckpoint(index) ? null : TYPES[types[slot(index)]]; }
+    public int getPlayerId(int index) { return playerIds[slot(index)]; }
+    public int getTargetId(int index) { return targetIds[slot(index)]; }
+    public int getDelta(int index) { return deltas[slot(index)]; }
+    public int getTurn(int index) { return turns[slot(index)]; }
+    public TurnCheckpoint getCheckpoint(int index) { return checkpoints[slot(index)]; }
+
+    /** The game as it was before the first undo, for redoing the newest turn; null when there is none. */
+    public TurnCheckpoint getRedoTip() { return redoTip; }
+
+    /** Snapshot restore: appends entries oldest first, then sets the cursor and redo tip. */
+    public void restoreEntry(GameAction.ActionType type, int playerId, int target, int delta, int turn) {
+        append((byte) type.ordinal(), playerId, target, delta, turn, null);
+    }
+
+    public void restoreCheckpoint(TurnCheckpoint checkpoint) {
+        appendCheckpoint(checkpoint);
+    }
+
+    public void restoreCursor(int cursor, TurnCheckpoint redoTip) {
+        this.cursor = Math.max(0, Math.min(cursor, end));
+        this.redoTip = this.cursor < end ? redoTip : null;
     }
-}
\ No newline at end of file
+}
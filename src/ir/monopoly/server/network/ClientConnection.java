@@ -0,0 +1,15 @@
+package ir.monopoly.server.network;
+
+public interface ClientConnection {
+    int getPlayerId();
+
+    GameRoom getRoom();
+
+    void sendMessage(String message);
+
+    /**
+     * Queues an encoded UTF-8 line, trailing newline included, without re-encoding it.
+     * Never blocks on the socket, so rooms and the lobby may call it on their own threads.
+     */
+    void sendLine(byte[] line);
+}
@@ -1,85 +1,83 @@
 package ir.monopoly.server.network;
 
-import ir.monopoly.server.game.GameState;
-import ir.monopoly.server.player.Player;
-import ir.monopoly.server.player.PlayerStatus;
 import java.io.*;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Blocking-transport connection. The reader thread feeds lines to the server; outgoing
+ * lines are queued and written by the connection's own writer thread, so a room or the
+ * lobby never blocks on a client that stops reading. A client that lets more than
+ * MAX_PENDING_LINES pile up is disconnected.
+ */
+public class ClientHandler implements Runnable, ClientConnection {
+    static final int MAX_PENDING_LINES = 4096;
+    private static final byte[] CLOSE = new byte[0];
 
-public class ClientHandler extends Thread {
     private final Socket socket;
     private final int playerId;
+    private final GameRoom room;
     private final GameServer server;
-    private PrintWriter out;
-    private BufferedReader in;
+    private final OutputStream out;
+    private final BufferedReader in;
+    private final BlockingQueue<byte[]> outbound = new LinkedBlockingQueue<>(MAX_PENDING_LINES);
 
-    public ClientHandler(Socket socket, int playerId, GameServer server) {
+    public ClientHandler(Socket socket, int playerId, GameRoom room, GameServer server) throws IOException {
         this.socket = socket;
         this.playerId = playerId;
+        this.room = room;
         this.server = server;
+        this.out = socket.getOutputStream();
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
     }
 
     @Override
     public void run() {
+        server.getExecutionMode().startThread(Thread.currentThread().getName() + "-writer", true, this::writeLoop);
         try {
-            out = new PrintWriter(socket.getOutputStream(), true);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-
-            String welcome = "{\"type\":\"CONNECTED\",\"playerId\":" + playerId + ",\"message\":\"Welcome to Monopoly!\"}";
-            sendMessage(welcome);
-
             String line;
             while ((line = in.readLine()) != null) {
-                System.out.println("Command from Player " + playerId + ": " + line);
-
-                try {
-
-                    String[] parts = line.trim().split("\\s+", 2);
-                    String commandType = parts[0].toUpperCase();
-                    String extra = parts.length > 1 ? parts[1] : "";
-
-                    String response = server.getGameController().handleCommand(commandType, playerId, extra);
-
-                    if (response != null && !response.isEmpty()) {
-                        sendMessage(response);
-                    }
-
-                } catch (Exception e) {
-                    sendMessage("{\"type\":\"ERROR\",\"message\":\"Invalid command format or logic error.\"}");
-                }
+                server.dispatch(this, line);
             }
-        } catch (IOException e) {
-            handleDisconnect();
+        } catch (IOException ignored) {
         } finally {
+            server.handleDisconnect(this);
             closeResources();
         }
     }
 
-    private void handleDisconnect() {
-        System.out.println("Player " + playerId + " disconnected.");
-        server.removeClient(this);
-
-        try {
-            GameState gs = server.getGameState();
-            if (gs != null) {
-                Player p = gs.getPlayerById(playerId);
-                if (p != null) {
-                    p.setStatus(PlayerStatus.BANKRUPT);
+    @Override
+    public void sendMessage(String message) {
+        sendLine((message + "\n").getBytes(StandardCharsets.UTF_8));
+    }
 
-                    String msg = "{\"type\":\"PLAYER_LEFT\",\"playerId\":" + playerId +
-                            ",\"playerName\":\"" + p.getName() +
-                            "\",\"message\":\"Player disconnected and left the game.\"}";
-                    server.broadcast(msg);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error during disconnect cleanup: " + e.getMessage());
+    @Override
+    public void sendLine(byte[] line) {
+        if (socket.isClosed()) return;
+        if (!outbound.offer(line)) {
+            System.err.println("Player " + playerId + " is not reading; disconnecting.");
+            closeResources();
+            return;
         }
+        room.getTrafficStats().recordMessage(line.length);
     }
 
-    public void sendMessage(String message) {
-        if (out != null && !socket.isClosed()) {
-            out.println(message);
+    /** Writes whatever has queued, then flushes once. */
+    private void writeLoop() {
+        try {
+            while (true) {
+                byte[] line = outbound.take();
+                do {
+                    if (line == CLOSE) return;
+                    out.write(line);
+                } while ((line = outbound.poll()) != null);
+                out.flush();
+                room.getTrafficStats().recordWrite();
+            }
+        } catch (IOException | InterruptedException e) {
+            closeResources();
         }
     }
 
@@ -87,9 +85,17 @@ public class ClientHandler extends Thread {
         try {
             if (socket != null) socket.close();
         } catch (IOException ignored) {}
+        outbound.clear();
+        outbound.offer(CLOSE);
     }
 
+    @Override
     public int getPlayerId() {
         return playerId;
     }
+
+    @Override
+    public GameRoom getRoom() {
+        return room;
+    }
 }
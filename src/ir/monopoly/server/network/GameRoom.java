@@ -0,0 +1,377 @@
+package ir.monopoly.server.network;
+
+import ir.monopoly.server.game.AsyncConsoleAppender;
+import ir.monopoly.server.game.EventMetrics;
+import ir.monopoly.server.game.GameBroadcaster;
+import ir.monopoly.server.game.GameController;
+import ir.monopoly.server.game.GameInitializer;
+import ir.monopoly.server.game.GameRecorder;
+import ir.monopoly.server.game.GameState;
+import ir.monopoly.server.persistence.GameArchive;
+import ir.monopoly.server.persistence.GameHistory;
+import ir.monopoly.server.persistence.GameJournal;
+import ir.monopoly.server.persistence.GameSnapshot;
+import ir.monopoly.server.persistence.JournalPosition;
+import ir.monopoly.server.persistence.JournalRecorder;
+import ir.monopoly.server.persistence.SnapshotStore;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.player.PlayerStatus;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * One table: its connections, its own GameState/GameController pair and a serial
+ * executor. Every command, start and disconnect of the room runs on that executor,
+ * so the room's state is only ever touched by one thread at a time.
+ */
+public class GameRoom implements GameBroadcaster {
+    private final int roomId;
+    private final int capacity;
+    private final RoomManager roomManager;
+    private final SerialExecutor executor;
+    private final TrafficStats trafficStats = new TrafficStats();
+    private final EventMetrics eventMetrics = new EventMetrics();
+    private final List<ClientConnection> members = new CopyOnWriteArrayList<>();
+    private volatile GameState gameState;
+    private volatile GameController gameController;
+    private volatile boolean started = false;
+    private GameHistory history;
+    private boolean replaying = false;
+    private long inputSeq = 0;
+    private long lastSnapshotSeq = 0;
+    private long lastSnapshotNanos = System.nanoTime();
+
+    GameRoom(int roomId, int capacity, RoomManager roomManager, Executor pool) {
+        this.roomId = roomId;
+        this.capacity = capacity;
+        this.roomManager = roomManager;
+        this.executor = new SerialExecutor(pool);
+    }
+
+    int nextPlayerId() {
+        for (int seat = 1; seat <= capacity; seat++) {
+            boolean taken = false;
+            for (ClientConnection member : members) {
+                if (member.getPlayerId() == seat) {
+                    taken = true;
+                    break;
+                }
+            }
+            if (!taken) return seat;
+        }
+        return -1;
+    }
+
+    void addMember(ClientConnection connection) {
+        members.add(connection);
+    }
+
+    boolean isFull() {
+        return members.size() >= capacity;
+    }
+
+    int getMemberCount() {
+        return members.size();
+    }
+
+    void submit(ClientConnection connection, String line) {
+        executor.execute(() -> {
+            String response = processLine(connection.getPlayerId(), line);
+            if (response != null && !response.isEmpty()) {
+                connection.sendMessage(response);
+            }
+        });
+    }
+
+    void scheduleStart() {
+        started = true;
+        executor.execute(this::initializeGameLogic);
+    }
+
+    void scheduleDisconnect(ClientConnection connection) {
+        executor.execute(() -> handleDisconnect(connection));
+    }
+
+    /** Closes a room with no members on its own thread, as if the last one had left. */
+    void scheduleExpiry() {
+        executor.execute(() -> roomManager.onMemberLeft(this));
+    }
+
+    private void initializeGameLogic() {
+        int[] playerIds = members.stream().mapToInt(ClientConnection::getPlayerId).sorted().toArray();
+
+        AsyncConsoleAppender.get().append("ROOM " + roomId + ": " + playerIds.length + " players joined. Initializing GameState...");
+
+        attachGame(GameInitializer.initializeGame(createPlayers(playerIds)));
+
+        GameJournal journal = roomManager.getJournal();
+        if (journal != null) {
+            SnapshotStore store = roomManager.getSnapshotStore();
+            if (store != null) store.roomOpened(roomId);
+            journal.roomCreated(roomId, gameState.getDice().getSeed(), playerIds);
+        }
+        startHistory(false);
+        lastSnapshotNanos = System.nanoTime();
+
+        broadcast("{\"type\":\"INFO\",\"message\":\"Game Started! Good luck!\"}");
+
+        int firstId = gameState.getTurnManager().getCurrentPlayer().getPlayerId();
+        broadcast("{\"type\":\"TURN_UPDATE\",\"currentPlayer\":" + firstId + "}");
+
+        AsyncConsoleAppender.get().append("ROOM " + roomId + ": Logic ready. Dice seed: " + gameState.getDice().getSeed() +
+                ". First turn: Player " + firstId);
+    }
+
+    private void attachGame(GameState gs) {
+        gs.getEvents().subscribe(eventMetrics);
+        this.gameState = gs;
+        this.gameController = new GameController(gs, this);
+    }
+
+    private static List<Player> createPlayers(int[] playerIds) {
+        List<Player> players = new ArrayList<>();
+        for (int playerId : playerIds) {
+            players.add(new Player(playerId, "Player " + playerId, 1500));
+        }
+        return players;
+    }
+
+    void attachJournal(GameJournal journal) {
+        if (gameState != null) {
+            installRecorder();
+        }
+    }
+
+    private void startHistory(boolean partial) {
+        history = roomManager.getArchive() == null ? null : new GameHistory(gameState, partial);
+        installRecorder();
+    }
+
+    private void installRecorder() {
+        GameJournal journal = roomManager.getJournal();
+        GameRecorder recorder = journal == null ? GameRecorder.NONE : new JournalRecorder(journal, roomId);
+        gameState.setRecorder(history == null ? recorder : recorder.andThen(history));
+    }
+
+    /**
+     * Writes the game to the archive once it is over; the history is released afterwards.
+     * A game that ends again during recovery was archived before the restart.
+     */
+    private void maybeArchive() {
+        GameArchive archive = roomManager.getArchive();
+        if (archive == null || history == null || !gameState.isGameOver()) return;
+        if (replaying) {
+            history = null;
+            installRecorder();
+            return;
+        }
+        try {
+            long gameId = archive.append(history);
+            archive.requestFlush();
+            AsyncConsoleAppender.get().append("ROOM " + roomId + ": Game archived as #" + gameId + " (" + history.getRecordCount() + " records)");
+        } catch (IOException e) {
+            System.err.println("ROOM " + roomId + ": Failed to archive game: " + e.getMessage());
+        }
+        history = null;
+        installRecorder();
+    }
+
+    /** Recovery: recreates the game exactly as the journaled ROOM_CREATED record started it. */
+    void restoreGame(int[] playerIds, long seed) {
+        attachGame(GameInitializer.initializeGame(createPlayers(playerIds), false, seed));
+        this.started = true;
+        startHistory(false);
+    }
+
+    /** Recovery: continues from a snapshot; only journaled inputs after it are replayed. */
+    void restoreFromSnapshot(GameSnapshot snapshot) {
+        attachGame(snapshot.restore());
+        this.gameController.restorePendingPurchase(snapshot.getPendingPurchase(gameState));
+        this.inputSeq = snapshot.getInputSeq();
+        this.lastSnapshotSeq = inputSeq;
+        this.started = true;
+        startHistory(true);
+    }
+
+    /** Recovery: re-executes a journaled command. The room has no members, so nothing is sent. */
+    void replayCommand(int playerId, String line) {
+        replaying = true;
+        try {
+            execute(playerId, line);
+        } finally {
+            replaying = false;
+        }
+    }
+
+    void replayDisconnect(int playerId) {
+        replaying = true;
+        try {
+            markPlayerLeft(playerId);
+        } finally {
+            replaying = false;
+        }
+    }
+
+    private String processLine(int playerId, String line) {
+        AsyncConsoleAppender.get().append("Room " + roomId + " command from Player " + playerId + ": " + line);
+        return execute(playerId, line);
+    }
+
+    private String execute(int playerId, String line) {
+        try {
+            String[] parts = line.trim().split("\\s+", 2);
+            String commandType = parts[0].toUpperCase();
+            String extra = parts.length > 1 ? parts[1] : "";
+
+            if (commandType.equals("NET_STATS")) {
+                int turns = gameState == null ? 0 : gameState.getTurnManager().getTurnCounter();
+                return "{\"type\":\"INFO\",\"message\":\"" + trafficStats.report(turns) + "\"}";
+            }
+
+            if (commandType.equals("EVENT_STATS")) {
+                return "{\"type\":\"INFO\",\"message\":\"" + eventMetrics.report() +
+                        " dropped_log_lines=" + AsyncConsoleAppender.get().getDropped() + "\"}";
+            }
+
+            if (commandType.equals("PERSIST_STATS")) {
+                return "{\"type\":\"INFO\",\"message\":\"" + roomManager.persistenceReport() + "\"}";
+            }
+
+            if (gameController == null) {
+                if (commandType.equals("START")) {
+                    return roomManager.startEarly(this) ? null
+                            : "{\"type\":\"ERROR\",\"message\":\"At least 2 players are needed to start.\"}";
+                }
+                return "{\"type\":\"ERROR\",\"message\":\"Waiting for players to join (" +
+                        members.size() + "/" + capacity + ").\"}";
+            }
+
+            GameJournal journal = roomManager.getJournal();
+            if (journal != null) {
+                journal.command(roomId, playerId, line);
+            }
+            inputSeq++;
+            String response = gameController.handleCommand(commandType, playerId, extra);
+            maybeSnapshot();
+            maybeArchive();
+            publishStandings();
+            return response;
+        } catch (Exception e) {
+            return "{\"type\":\"ERROR\",\"message\":\"Invalid command format or logic error.\"}";
+        }
+    }
+
+    private void handleDisconnect(ClientConnection connection) {
+        int playerId = connection.getPlayerId();
+        AsyncConsoleAppender.get().append("Room " + roomId + ": Player " + playerId + " disconnected.");
+        members.remove(connection);
+        markPlayerLeft(playerId);
+        roomManager.onMemberLeft(this);
+    }
+
+    private void markPlayerLeft(int playerId) {
+        try {
+            GameState gs = gameState;
+            if (gs != null) {
+                Player p = gs.getPlayerById(playerId);
+                if (p != null) {
+                    GameJournal journal = roomManager.getJournal();
+                    if (journal != null) {
+                        journal.disconnect(roomId, playerId);
+                    }
+                    inputSeq++;
+                    p.setStatus(PlayerStatus.BANKRUPT);
+                    gs.getCardDeck().returnJailCards(p);
+                    gs.getUndoManager().clear();
+                    gs.checkGameOver();
+                    maybeSnapshot();
+                    maybeArchive();
+                    publishStandings();
+
+                    String msg = "{\"type\":\"PLAYER_LEFT\",\"playerId\":" + playerId +
+                            ",\"playerName\":\"" + p.getName() +
+                            "\",\"message\":\"Player disconnected and left the game.\"}";
+                    broadcast(msg);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error during disconnect cleanup: " + e.getMessage());
+        }
+    }
+
+    /** Recovery publishes once at the end instead of after every replayed input. */
+    private void publishStandings() {
+        if (!replaying) roomManager.getGlobalLeaderboard().publish(roomId, gameState);
+    }
+
+    /**
+     * Encodes a snapshot on the room thread when one is due and no auction or trade is
+     * open; the store writes it in the background.
+     */
+    private void maybeSnapshot() {
+        SnapshotStore store = roomManager.getSnapshotStore();
+        if (store == null || !GameSnapshot.canCapture(gameState)) return;
+
+        long now = System.nanoTime();
+        if (!SnapshotStore.isDue(inputSeq - lastSnapshotSeq, now - lastSnapshotNanos)) return;
+
+        GameJournal journal = roomManager.getJournal();
+        if (journal == null) return;
+        JournalPosition replayFrom = journal.getWrittenPosition();
+        long journalRecords = journal.getRecordCount();
+        byte[] snapshot = GameSnapshot.capture(roomId, inputSeq, journalRecords, replayFrom, gameState, gameController);
+        store.saveAsync(roomId, snapshot, System.nanoTime() - now, journalRecords, replayFrom);
+        lastSnapshotSeq = inputSeq;
+        lastSnapshotNanos = now;
+    }
+
+    @Override
+    public void broadcast(String message) {
+        for (ClientConnection member : members) {
+            member.sendMessage(message);
+        }
+    }
+
+    @Override
+    public void sendToPlayer(int playerId, String message) {
+        for (ClientConnection member : members) {
+            if (member.getPlayerId() == playerId) {
+                member.sendMessage(message);
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void sendToPlayer(int playerId, byte[] line) {
+        for (ClientConnection member : members) {
+            if (member.getPlayerId() == playerId) {
+                member.sendLine(line);
+                break;
+            }
+        }
+    }
+
+    public TrafficStats getTrafficStats() {
+        return trafficStats;
+    }
+
+    public int getRoomId() {
+        return roomId;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    public GameController getGameController() {
+        return gameController;
+    }
+}
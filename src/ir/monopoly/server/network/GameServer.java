@@ -1,96 +1,186 @@
 package ir.monopoly.server.network;
 
 import ir.monopoly.server.game.GameController;
-import ir.monopoly.server.game.GameInitializer;
-import ir.monopoly.server.game.GameState;
-import ir.monopoly.server.player.Player;
+import ir.monopoly.server.persistence.FsyncPolicy;
+import ir.monopoly.server.persistence.GameArchive;
+import ir.monopoly.server.persistence.GameJournal;
+import ir.monopoly.server.persistence.SnapshotStore;
+import ir.monopoly.shared.ExecutionMode;
 import java.io.*;
 import java.net.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
 
 public class GameServer {
 
-    private static final int PORT = 8080;
-    private final List<ClientHandler> clients = new ArrayList<>();
-    private final List<Player> logicPlayers = new ArrayList<>();
-    private GameState gameState;
-    private GameController gameController;
-    private boolean gameStarted = false;
-
-    public void startServer() {
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
-            System.out.println("SERVER: Monopoly Server started on port " + PORT);
-            System.out.println("SERVER: Waiting for 4 players to connect...");
+    public static final int DEFAULT_PORT = 8080;
+    public static final String JOURNAL_PROPERTY = "monopoly.journal";
+    public static final String ARCHIVE_PROPERTY = "monopoly.archive";
+
+    private final int port;
+    private final TransportMode transportMode;
+    private final ExecutionMode executionMode;
+    private final RoomManager roomManager;
+    private final Path journalPath;
+    private final Path archivePath;
+    private volatile GameArchive archive;
+    private volatile GameJournal journal;
+    private volatile SnapshotStore snapshotStore;
+    private volatile ServerSocket serverSocket;
+    private volatile NioTransport nioTransport;
+    private volatile boolean running = false;
+
+    public GameServer() {
+        this(DEFAULT_PORT, RoomManager.MAX_PLAYERS, TransportMode.BLOCKING, ExecutionMode.PLATFORM);
+    }
 
-            while (clients.size() < 4) {
-                Socket socket = serverSocket.accept();
-                int playerId = clients.size() + 1;
+    public GameServer(int port, int roomCapacity, TransportMode transportMode, ExecutionMode executionMode) {
+        this(port, roomCapacity, transportMode, executionMode, null);
+    }
 
-                Player newPlayer = new Player(playerId, "Player " + playerId, 1500);
-                logicPlayers.add(newPlayer);
+    /** With a journal path, open rooms are rebuilt from the journal on start and every game is journaled. */
+    public GameServer(int port, int roomCapacity, TransportMode transportMode, ExecutionMode executionMode,
+                      Path journalPath) {
+        this(port, roomCapacity, transportMode, executionMode, journalPath, null);
+    }
 
-                ClientHandler handler = new ClientHandler(socket, playerId, this);
-                clients.add(handler);
-                handler.start();
+    /** With an archive directory, every finished game is written to the GameArchive there. */
+    public GameServer(int port, int roomCapacity, TransportMode transportMode, ExecutionMode executionMode,
+                      Path journalPath, Path archivePath) {
+        this.port = port;
+        this.journalPath = journalPath;
+        this.archivePath = archivePath;
+        this.transportMode = transportMode;
+        this.executionMode = executionMode;
+        this.roomManager = new RoomManager(roomCapacity, executionMode);
+    }
 
-                System.out.println("SERVER: Player " + playerId + " connected. (" + clients.size() + "/4)");
+    public void startServer() {
+        System.out.println("SERVER: Monopoly Server starting on port " + port +
+                " (" + transportMode + " transport, " + executionMode + " threads)");
+        running = true;
+
+        try {
+            if (archivePath != null) openArchive();
+            if (journalPath != null) openJournal();
+            if (transportMode == TransportMode.NIO) {
+                nioTransport = new NioTransport(this, port);
+                nioTransport.run();
+            } else {
+                runBlocking();
             }
-
-            initializeGameLogic();
-
         } catch (IOException e) {
-            System.err.println("SERVER ERROR: " + e.getMessage());
+            if (running) System.err.println("SERVER ERROR: " + e.getMessage());
+        } finally {
+            roomManager.shutdown();
+            closeJournal();
+            closeArchive();
         }
     }
 
-    private void initializeGameLogic() {
-        System.out.println("SERVER: All players joined. Initializing GameState...");
-
-        this.gameState = GameInitializer.initializeGame(logicPlayers);
-        this.gameController = new GameController(gameState, this);
-        this.gameStarted = true;
-
-        broadcast("{\"type\":\"INFO\",\"message\":\"Game Started! Good luck!\"}");
+    private void openArchive() {
+        try {
+            archive = GameArchive.open(archivePath);
+            roomManager.attachArchive(archive);
+            System.out.println("SERVER: Archiving finished games to " + archivePath + " (" + archive.getGameCount() + " archived)");
+        } catch (IOException e) {
+            System.err.println("SERVER: Archive unavailable, running without it: " + e.getMessage());
+        }
+    }
 
-        int firstId = gameState.getTurnManager().getCurrentPlayer().getPlayerId();
-        broadcast("{\"type\":\"TURN_UPDATE\",\"currentPlayer\":" + firstId + "}");
+    private void closeArchive() {
+        GameArchive a = archive;
+        if (a == null) return;
+        try {
+            a.close();
+        } catch (IOException e) {
+            System.err.println("SERVER: Failed to close archive: " + e.getMessage());
+        }
+    }
 
-        System.out.println("SERVER: Logic ready. First turn: Player " + firstId);
+    private void openJournal() {
+        try {
+            snapshotStore = new SnapshotStore(SnapshotStore.directoryFor(journalPath));
+            roomManager.recover(journalPath, snapshotStore);
+            journal = GameJournal.open(journalPath, FsyncPolicy.fromSystemProperty(), snapshotStore.getCheckpoint());
+            roomManager.attachJournal(journal, snapshotStore);
+            System.out.println("SERVER: Journaling to " + journalPath + " (fsync " + journal.getFsyncPolicy() + ")");
+        } catch (IOException e) {
+            System.err.println("SERVER: Journal unavailable, running without it: " + e.getMessage());
+        }
     }
 
-    public synchronized void broadcast(String message) {
-        for (ClientHandler client : clients) {
-            client.sendMessage(message);
+    private void closeJournal() {
+        SnapshotStore store = snapshotStore;
+        if (store != null) store.close();
+        GameJournal j = journal;
+        if (j == null) return;
+        try {
+            j.close();
+        } catch (IOException e) {
+            System.err.println("SERVER: Failed to close journal: " + e.getMessage());
         }
     }
 
-    public synchronized void sendToPlayer(int playerId, String message) {
-        for (ClientHandler client : clients) {
-            if (client.getPlayerId() == playerId) {
-                client.sendMessage(message);
-                break;
+    private void runBlocking() throws IOException {
+        try (ServerSocket socketListener = new ServerSocket(port)) {
+            serverSocket = socketListener;
+
+            while (running) {
+                Socket socket = socketListener.accept();
+                try {
+                    ClientHandler handler = roomManager.join(
+                            (room, playerId) -> new ClientHandler(socket, playerId, room, this));
+                    executionMode.startThread("client-" + handler.getRoom().getRoomId() + "-" + handler.getPlayerId(),
+                            false, handler);
+                } catch (IOException e) {
+                    System.err.println("SERVER: Failed to seat connection: " + e.getMessage());
+                    socket.close();
+                }
             }
         }
     }
 
-    public synchronized void removeClient(ClientHandler handler) {
-        clients.remove(handler);
+    void dispatch(ClientConnection connection, String line) {
+        // Served from the leaderboard's snapshot on the reader's thread, without queuing behind the room.
+        if (line.trim().toUpperCase().startsWith("GET_GLOBAL_TOP_K")) {
+            String report = roomManager.getGlobalLeaderboard().report();
+            connection.sendMessage("{\"type\":\"SHOW_CARD\",\"text\":\"" + GameController.escapeJson(report) + "\"}");
+            return;
+        }
+        connection.getRoom().submit(connection, line);
+    }
+
+    void handleDisconnect(ClientConnection connection) {
+        connection.getRoom().scheduleDisconnect(connection);
+    }
+
+    public void stop() {
+        running = false;
+        try {
+            ServerSocket listener = serverSocket;
+            if (listener != null) listener.close();
+        } catch (IOException ignored) {}
+
+        NioTransport transport = nioTransport;
+        if (transport != null) transport.stop();
     }
 
-    public GameController getGameController() {
-        return gameController;
+    public RoomManager getRoomManager() {
+        return roomManager;
     }
 
-    public GameState getGameState() {
-        return gameState;
+    public TransportMode getTransportMode() {
+        return transportMode;
     }
 
-    public boolean isGameStarted() {
-        return gameStarted;
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
     }
 
     public static void main(String[] args) {
-        new GameServer().startServer();
+        String journal = System.getProperty(JOURNAL_PROPERTY);
+        String archive = System.getProperty(ARCHIVE_PROPERTY);
+        new GameServer(DEFAULT_PORT, RoomManager.MAX_PLAYERS, TransportMode.fromArgs(args), ExecutionMode.fromArgs(args),
+                journal == null ? null : Path.of(journal), archive == null ? null : Path.of(archive)).startServer();
     }
 }
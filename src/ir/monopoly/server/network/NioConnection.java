@@ -0,0 +1,144 @@
+package ir.monopoly.server.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+public class NioConnection implements ClientConnection {
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int INITIAL_WRITE_BUFFER_SIZE = 8192;
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final int playerId;
+    private final GameRoom room;
+    private final NioTransport transport;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private ByteBuffer lineBuffer = ByteBuffer.allocate(256);
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(INITIAL_WRITE_BUFFER_SIZE);
+    private SelectionKey key;
+    private volatile boolean closed = false;
+
+    NioConnection(SocketChannel channel, int playerId, GameRoom room, NioTransport transport) {
+        this.channel = channel;
+        this.playerId = playerId;
+        this.room = room;
+        this.transport = transport;
+    }
+
+    void attach(SelectionKey key) {
+        this.key = key;
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    @Override
+    public GameRoom getRoom() {
+        return room;
+    }
+
+    @Override
+    public void sendMessage(String message) {
+        if (closed) return;
+
+        sendLine((message + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void sendLine(byte[] bytes) {
+        if (closed) return;
+
+        synchronized (this) {
+            if (writeBuffer.remaining() < bytes.length) {
+                int needed = writeBuffer.position() + bytes.length;
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(writeBuffer.capacity() * 2, needed));
+                writeBuffer.flip();
+                grown.put(writeBuffer);
+                writeBuffer = grown;
+            }
+            writeBuffer.put(bytes);
+        }
+        room.getTrafficStats().recordMessage(bytes.length);
+        transport.requestWrite(this);
+    }
+
+    /**
+     * Reads whatever is available and hands every complete line to the transport.
+     * Returns false once the peer has closed the connection.
+     */
+    boolean readLines() throws IOException {
+        int read = channel.read(readBuffer);
+        if (read == -1) return false;
+
+        readBuffer.flip();
+        while (readBuffer.hasRemaining()) {
+            byte b = readBuffer.get();
+            if (b == '\n') {
+                lineBuffer.flip();
+                int length = lineBuffer.limit();
+                if (length > 0 && lineBuffer.get(length - 1) == '\r') length--;
+                String line = new String(lineBuffer.array(), 0, length, StandardCharsets.UTF_8);
+                lineBuffer.clear();
+                transport.dispatch(this, line);
+            } else {
+                appendToLine(b);
+            }
+        }
+        readBuffer.clear();
+        return true;
+    }
+
+    private void appendToLine(byte b) throws IOException {
+        if (!lineBuffer.hasRemaining()) {
+            if (lineBuffer.capacity() >= MAX_LINE_LENGTH) {
+                throw new IOException("Line too long from Player " + playerId);
+            }
+            ByteBuffer grown = ByteBuffer.allocate(lineBuffer.capacity() * 2);
+            lineBuffer.flip();
+            grown.put(lineBuffer);
+            lineBuffer = grown;
+        }
+        lineBuffer.put(b);
+    }
+
+    /**
+     * Writes as much pending output as the socket accepts and keeps OP_WRITE
+     * registered only while something is left over. Must run on the selector thread.
+     */
+    void flushPending() throws IOException {
+        synchronized (this) {
+            writeBuffer.flip();
+            if (writeBuffer.hasRemaining()) {
+                channel.write(writeBuffer);
+                room.getTrafficStats().recordWrite();
+            }
+            boolean drained = !writeBuffer.hasRemaining();
+            writeBuffer.compact();
+
+            if (key != null && key.isValid()) {
+                key.interestOps(drained ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    void close() {
+        closed = true;
+        if (key != null) key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,130 @@
+package ir.monopoly.server.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Single-threaded selector loop serving every connection without a thread per socket.
+ * Complete lines are handed to the connection's room through the same GameServer path
+ * as the blocking ClientHandler; writes from any thread are queued and flushed here.
+ */
+public class NioTransport {
+    private final GameServer server;
+    private final int port;
+    private final Queue<NioConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private volatile Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running = false;
+
+    public NioTransport(GameServer server, int port) {
+        this.server = server;
+        this.port = port;
+    }
+
+    public void run() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        selectorThread = Thread.currentThread();
+        running = true;
+
+        try {
+            while (running) {
+                drainPendingWrites();
+                selector.select();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        NioConnection connection = (NioConnection) key.attachment();
+                        try {
+                            if (key.isReadable() && !connection.readLines()) {
+                                disconnect(connection);
+                                continue;
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flushPending();
+                            }
+                        } catch (IOException e) {
+                            disconnect(connection);
+                        }
+                    }
+                }
+            }
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) return;
+
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        NioConnection connection = server.getRoomManager().join(
+                (room, playerId) -> new NioConnection(channel, playerId, room, this));
+        key.attach(connection);
+        connection.attach(key);
+    }
+
+    void dispatch(NioConnection connection, String line) {
+        server.dispatch(connection, line);
+    }
+
+    void requestWrite(NioConnection connection) {
+        pendingWrites.add(connection);
+        if (Thread.currentThread() != selectorThread && selector != null) {
+            selector.wakeup();
+        }
+    }
+
+    private void drainPendingWrites() {
+        NioConnection connection;
+        while ((connection = pendingWrites.poll()) != null) {
+            if (connection.isClosed()) continue;
+            try {
+                connection.flushPending();
+            } catch (IOException e) {
+                disconnect(connection);
+            }
+        }
+    }
+
+    private void disconnect(NioConnection connection) {
+        if (connection.isClosed()) return;
+        connection.close();
+        server.handleDisconnect(connection);
+    }
+
+    public void stop() {
+        running = false;
+        if (selector != null) selector.wakeup();
+    }
+
+    private void closeAll() throws IOException {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof NioConnection connection) {
+                connection.close();
+            }
+        }
+        if (serverChannel.isOpen()) serverChannel.close();
+        selector.close();
+    }
+}
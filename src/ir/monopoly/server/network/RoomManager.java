@@ -0,0 +1,273 @@
+package ir.monopoly.server.network;
+
+import ir.monopoly.server.game.GlobalLeaderboard;
+import ir.monopoly.server.persistence.GameArchive;
+import ir.monopoly.server.persistence.GameJournal;
+import ir.monopoly.server.persistence.GameSnapshot;
+import ir.monopoly.server.persistence.JournalPosition;
+import ir.monopoly.server.persistence.JournalReader;
+import ir.monopoly.server.persistence.RecordType;
+import ir.monopoly.server.persistence.SnapshotStore;
+import ir.monopoly.shared.ExecutionMode;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The lobby: seats every new connection in the room that is currently filling up.
+ * A room starts as soon as it is full, when a seated player sends START with at
+ * least two players present, or when the lobby timeout fires with two or more.
+ * Rooms rebuilt from the journal have no members and nobody can be seated in them
+ * again, so they are closed (ROOM_CLOSED journaled) once RECOVERED_ROOM_TTL_PROPERTY
+ * seconds have passed after the journal is attached.
+ */
+public class RoomManager {
+    public static final int MIN_PLAYERS = 2;
+    public static final int MAX_PLAYERS = 4;
+    public static final String RECOVERED_ROOM_TTL_PROPERTY = "monopoly.recovered.ttl";
+    public static final long DEFAULT_RECOVERED_ROOM_TTL_SECONDS = 300;
+    private static final long LOBBY_TIMEOUT_SECONDS = 30;
+
+    private final int roomCapacity;
+    private final ExecutorService roomPool;
+    private final ScheduledExecutorService lobbyTimer;
+    private final Map<Integer, GameRoom> rooms = new ConcurrentHashMap<>();
+    private final GlobalLeaderboard globalLeaderboard = new GlobalLeaderboard();
+    private int nextRoomId = 1;
+    private GameRoom lobbyRoom;
+    private volatile GameJournal journal;
+    private volatile SnapshotStore snapshotStore;
+    private volatile GameArchive archive;
+
+    @FunctionalInterface
+    public interface ConnectionFactory<C extends ClientConnection> {
+        C create(GameRoom room, int playerId) throws IOException;
+    }
+
+    public RoomManager(int roomCapacity, ExecutionMode executionMode) {
+        if (roomCapacity < MIN_PLAYERS || roomCapacity > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Room capacity must be between " + MIN_PLAYERS + " and " + MAX_PLAYERS);
+        }
+        this.roomCapacity = roomCapacity;
+        this.roomPool = executionMode.newRoomPool();
+        this.lobbyTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lobby-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized <C extends ClientConnection> C join(ConnectionFactory<C> factory) throws IOException {
+        if (lobbyRoom == null) {
+            lobbyRoom = new GameRoom(nextRoomId++, roomCapacity, this, roomPool);
+            rooms.put(lobbyRoom.getRoomId(), lobbyRoom);
+        }
+
+        GameRoom room = lobbyRoom;
+        C connection = factory.create(room, room.nextPlayerId());
+        connection.sendMessage("{\"type\":\"CONNECTED\",\"playerId\":" + connection.getPlayerId() +
+                ",\"message\":\"Welcome to Monopoly!\"}");
+        room.addMember(connection);
+        System.out.println("LOBBY: Player " + connection.getPlayerId() + " seated in room " + room.getRoomId() +
+                " (" + room.getMemberCount() + "/" + roomCapacity + ")");
+
+        if (room.isFull()) {
+            startRoom(room);
+        } else if (room.getMemberCount() == MIN_PLAYERS) {
+            lobbyTimer.schedule(() -> startEarly(room), LOBBY_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        return connection;
+    }
+
+    synchronized boolean startEarly(GameRoom room) {
+        if (room != lobbyRoom || room.getMemberCount() < MIN_PLAYERS) return false;
+        startRoom(room);
+        return true;
+    }
+
+    private void startRoom(GameRoom room) {
+        lobbyRoom = null;
+        room.scheduleStart();
+    }
+
+    synchronized void onMemberLeft(GameRoom room) {
+        if (room.getMemberCount() == 0) {
+            if (room == lobbyRoom) lobbyRoom = null;
+            rooms.remove(room.getRoomId());
+            GameJournal j = journal;
+            if (j != null && room.getGameState() != null) {
+                j.roomClosed(room.getRoomId());
+            }
+            SnapshotStore store = snapshotStore;
+            if (store != null && room.getGameState() != null) {
+                store.deleteAsync(room.getRoomId());
+            }
+            if (room.getGameState() != null) {
+                globalLeaderboard.removeRoom(room.getRoomId(), room.getGameState());
+            }
+        }
+    }
+
+    /**
+     * Rebuilds every room the journal left open. Rooms with a snapshot start from it and
+     * replay only the journaled inputs it does not cover; the journal is read from the
+     * snapshot store's checkpoint on, and rooms created after it without a snapshot replay
+     * all their commands through a fresh GameState with the journaled dice seed. Must run
+     * before the journal is attached and before connections are accepted.
+     */
+    public synchronized int recover(Path path, SnapshotStore snapshots) throws IOException {
+        if (!Files.exists(path)) return 0;
+        long start = System.nanoTime();
+        long records = 0;
+        long replayed = 0;
+        int fromSnapshot = 0;
+        JournalPosition checkpoint = snapshots == null ? JournalPosition.START : snapshots.loadCheckpoint(path);
+        Map<Integer, GameSnapshot> latest = snapshots == null ? new HashMap<>() : snapshots.loadAll();
+        Map<Integer, JournalPosition> replayFrom = new HashMap<>();
+
+        long journalSize = Files.size(path);
+        for (Iterator<GameSnapshot> it = latest.values().iterator(); it.hasNext(); ) {
+            GameSnapshot snapshot = it.next();
+            int roomId = snapshot.getRoomId();
+            GameRoom restored = new GameRoom(roomId, roomCapacity, this, roomPool);
+            try {
+                if (snapshot.getReplayFrom().getOffset() > journalSize) {
+                    throw new IllegalStateException("snapshot is ahead of the journal");
+                }
+                restored.restoreFromSnapshot(snapshot);
+            } catch (RuntimeException e) {
+                System.err.println("SNAPSHOT ERROR: ignoring the snapshot of room " + roomId + ": " + e);
+                it.remove();
+                continue;
+            }
+            rooms.put(roomId, restored);
+            replayFrom.put(roomId, snapshot.getReplayFrom());
+        }
+
+        try (JournalReader reader = new JournalReader(path, checkpoint)) {
+            while (reader.next()) {
+                records++;
+                int roomId = reader.getRoomId();
+                ByteBuffer payload = reader.getPayload();
+                GameRoom room = rooms.get(roomId);
+
+                switch (reader.getType()) {
+                    case ROOM_CREATED -> {
+                        if (room != null) continue;
+                        long seed = payload.getLong();
+                        int[] playerIds = new int[payload.get()];
+                        for (int i = 0; i < playerIds.length; i++) {
+                            playerIds[i] = payload.getInt();
+                        }
+                        GameRoom restored = new GameRoom(roomId, roomCapacity, this, roomPool);
+                        restored.restoreGame(playerIds, seed);
+                        rooms.put(roomId, restored);
+                        replayFrom.put(roomId, reader.getFrameStart());
+                    }
+                    case COMMAND, DISCONNECT -> {
+                        if (room == null) continue;
+                        GameSnapshot snapshot = latest.get(roomId);
+                        if (snapshot != null && reader.getRecordNumber() <= snapshot.getJournalRecords()) continue;
+                        replayed++;
+                        if (reader.getType() == RecordType.COMMAND) {
+                            room.replayCommand(payload.getInt(), GameJournal.readString(payload));
+                        } else {
+                            room.replayDisconnect(payload.getInt());
+                        }
+                    }
+                    case ROOM_CLOSED -> {
+                        rooms.remove(roomId);
+                        latest.remove(roomId);
+                        replayFrom.remove(roomId);
+                        if (snapshots != null) snapshots.deleteAsync(roomId);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        for (GameRoom room : rooms.values()) {
+            if (latest.containsKey(room.getRoomId())) fromSnapshot++;
+            room.getGameState().setEventLogging(true);
+            globalLeaderboard.publish(room.getRoomId(), room.getGameState());
+            nextRoomId = Math.max(nextRoomId, room.getRoomId() + 1);
+            if (snapshots != null) snapshots.roomRecovered(room.getRoomId(), replayFrom.get(room.getRoomId()));
+        }
+        if (snapshots != null) nextRoomId = Math.max(nextRoomId, snapshots.getNextRoomId());
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (snapshots != null) snapshots.recordRestore(rooms.size(), replayed, millis);
+        System.out.println("RECOVERY: " + rooms.size() + " open rooms rebuilt (" + fromSnapshot + " from snapshots) from " +
+                records + " journal records after " + checkpoint + ", " + replayed + " inputs replayed, in " + millis + " ms");
+        return rooms.size();
+    }
+
+    public synchronized void attachJournal(GameJournal journal, SnapshotStore snapshots) {
+        this.journal = journal;
+        this.snapshotStore = snapshots;
+        if (snapshots != null) snapshots.attachJournal(journal);
+        long ttl = Long.getLong(RECOVERED_ROOM_TTL_PROPERTY, DEFAULT_RECOVERED_ROOM_TTL_SECONDS);
+        for (GameRoom room : rooms.values()) {
+            room.attachJournal(journal);
+            lobbyTimer.schedule(() -> expireRecovered(room), ttl, TimeUnit.SECONDS);
+        }
+    }
+
+    private synchronized void expireRecovered(GameRoom room) {
+        if (rooms.get(room.getRoomId()) != room || room.getMemberCount() > 0) return;
+        System.out.println("RECOVERY: closing unclaimed room " + room.getRoomId());
+        room.scheduleExpiry();
+    }
+
+    GameJournal getJournal() {
+        return journal;
+    }
+
+    /** Must be attached before recovery so restored rooms collect their history too. */
+    public void attachArchive(GameArchive archive) {
+        this.archive = archive;
+    }
+
+    GameArchive getArchive() {
+        return archive;
+    }
+
+    SnapshotStore getSnapshotStore() {
+        return snapshotStore;
+    }
+
+    String persistenceReport() {
+        GameJournal j = journal;
+        if (j == null) return "Journaling is off.";
+        SnapshotStore store = snapshotStore;
+        return "journal: records=" + j.getRecordCount() + " bytes=" + j.getBytesWritten() +
+                " frames=" + j.getFrameCount() + " fsyncs=" + j.getFsyncCount() +
+                (store == null ? "" : " | " + store.report());
+    }
+
+    public GlobalLeaderboard getGlobalLeaderboard() {
+        return globalLeaderboard;
+    }
+
+    public GameRoom getRoom(int roomId) {
+        return rooms.get(roomId);
+    }
+
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    public void shutdown() {
+        lobbyTimer.shutdownNow();
+        roomPool.shutdown();
+    }
+}
@@ -0,0 +1,60 @@
+package ir.monopoly.server.network;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs submitted tasks one at a time, in order, on a shared pool. An idle executor
+ * holds no thread; a busy one gives its pool thread back after every batch so other
+ * rooms sharing the pool get a turn.
+ */
+public class SerialExecutor implements Executor {
+    private static final int BATCH_SIZE = 32;
+
+    private final Executor pool;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public SerialExecutor(Executor pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                pool.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // The server is shutting down; nothing left to run these on.
+                tasks.clear();
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            int ran = 0;
+            while (ran < BATCH_SIZE && (task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("Room task failed: " + e.getMessage());
+                }
+                ran++;
+            }
+        } finally {
+            scheduled.set(false);
+            if (!tasks.isEmpty()) schedule();
+        }
+    }
+}
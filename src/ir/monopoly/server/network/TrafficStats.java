@@ -0,0 +1,34 @@
+package ir.monopoly.server.network;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outbound traffic of one room: messages queued, socket writes issued and bytes sent.
+ * The blocking transport flushes every message, so there writes equal messages;
+ * the NIO transport counts its actual channel writes.
+ */
+public class TrafficStats {
+    private final LongAdder messages = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    public void recordMessage(int byteCount) {
+        messages.increment();
+        bytes.add(byteCount);
+    }
+
+    public void recordWrite() {
+        writes.increment();
+    }
+
+    public long getMessages() { return messages.sum(); }
+    public long getWrites() { return writes.sum(); }
+    public long getBytes() { return bytes.sum(); }
+
+    public String report(int turns) {
+        int perTurn = Math.max(1, turns);
+        return "messages=" + getMessages() + " writes=" + getWrites() + " bytes=" + getBytes() +
+                " turns=" + turns +
+                " | per turn: writes=" + getWrites() / perTurn + " bytes=" + getBytes() / perTurn;
+    }
+}
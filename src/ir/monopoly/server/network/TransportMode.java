@@ -0,0 +1,14 @@
+package ir.monopoly.server.network;
+
+public enum TransportMode {
+    BLOCKING,
+    NIO;
+
+    public static TransportMode fromArgs(String[] args) {
+        for (String arg : args) {
+            if (arg.equalsIgnoreCase("--nio")) return NIO;
+            if (arg.equalsIgnoreCase("--blocking")) return BLOCKING;
+        }
+        return BLOCKING;
+    }
+}
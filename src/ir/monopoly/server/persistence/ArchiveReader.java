@@ -0,0 +1,75 @@
+package ir.monopoly.server.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Read-only, memory-mapped access to a GameArchive directory. Sees the games that were
+ * committed when it was opened. Segments are mapped once and read in place.
+ * Usage: reader.forEach(game -> ...) scans every game with one reused view;
+ * reader.get(id) returns a view of a single game.
+ */
+public class ArchiveReader {
+    private final Path directory;
+    private final MappedByteBuffer index;
+    private final long gameCount;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[4];
+
+    private ArchiveReader(Path directory, MappedByteBuffer index) {
+        this.directory = directory;
+        this.index = index;
+        this.gameCount = index.getLong(8);
+    }
+
+    public static ArchiveReader open(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(GameArchive.indexPath(directory), StandardOpenOption.READ)) {
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (index.getInt(0) != GameArchive.MAGIC || index.getInt(4) != GameArchive.VERSION) {
+                throw new IOException("Not a game archive: " + directory);
+            }
+            return new ArchiveReader(directory, index);
+        }
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /** Returns null for an id that is not in the archive. */
+    public ArchivedGame get(long gameId) throws IOException {
+        if (gameId < 1 || gameId > gameCount) return null;
+        return view(new ArchivedGame(), gameId);
+    }
+
+    /** Visits every game in id order. The view passed in is reused, so do not keep it. */
+    public void forEach(Consumer<ArchivedGame> visitor) throws IOException {
+        ArchivedGame game = new ArchivedGame();
+        for (long id = 1; id <= gameCount; id++) {
+            visitor.accept(view(game, id));
+        }
+    }
+
+    private ArchivedGame view(ArchivedGame game, long gameId) throws IOException {
+        int entry = GameArchive.entryPosition(gameId);
+        return game.at(segment(index.getInt(entry + 8)), index.getInt(entry + 12));
+    }
+
+    private ByteBuffer segment(int number) throws IOException {
+        if (number >= segments.length) {
+            MappedByteBuffer[] bigger = new MappedByteBuffer[Math.max(number + 1, segments.length * 2)];
+            System.arraycopy(segments, 0, bigger, 0, segments.length);
+            segments = bigger;
+        }
+        if (segments[number] == null) {
+            try (FileChannel channel = FileChannel.open(GameArchive.segmentPath(directory, number), StandardOpenOption.READ)) {
+                segments[number] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        return segments[number];
+    }
+}
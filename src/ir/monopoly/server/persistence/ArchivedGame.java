@@ -0,0 +1,57 @@
+package ir.monopoly.server.persistence;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only view of one archived game inside a mapped segment; nothing is copied.
+ * Seats are 0-based in the order the game seated its players.
+ *
+ * Each record is 20 bytes: [byte type][byte subtype][byte player][byte other]
+ * [int turn][int target][int value][int secondValue], filled per type as
+ *   ROLL         player, value = die 1, secondValue = die 2
+ *   RENT         player pays other, value = amount
+ *   CARD         subtype 1 = Chance / 0 = Community Chest, value = draw number in that deck
+ *   AUCTION_WON  player, target = property id, value = price
+ *   BANKRUPTCY   player, other = creditor (0 = bank)
+ *   ACTION       subtype = GameAction.ActionType ordinal, target = tile/property id,
+ *                value/secondValue = old/new value; for TRADE other = receiver and
+ *                value/secondValue = offered/requested cash
+ */
+public class ArchivedGame {
+    private ByteBuffer segment;
+    private int base;
+
+    ArchivedGame() {
+    }
+
+    ArchivedGame at(ByteBuffer segment, int offset) {
+        this.segment = segment;
+        this.base = offset;
+        return this;
+    }
+
+    public long getGameId() { return segment.getLong(base); }
+    public long getSeed() { return segment.getLong(base + 8); }
+    public int getRecordCount() { return segment.getInt(base + 16); }
+    public int getTurns() { return segment.getInt(base + 20); }
+    /** 0 if the game ended without a single survivor. */
+    public int getWinnerId() { return segment.getInt(base + 24); }
+    public int getPlayerCount() { return segment.get(base + 28); }
+    /** True if the history starts mid-game (the room was restored from a snapshot). */
+    public boolean isPartial() { return (segment.get(base + 29) & 1) != 0; }
+    public int getPlayerId(int seat) { return segment.getInt(base + 32 + 4 * seat); }
+    public int getFinalBalance(int seat) { return segment.getInt(base + 48 + 4 * seat); }
+
+    public RecordType getRecordType(int i) { return RecordType.fromCode(segment.get(record(i))); }
+    public int getRecordSubtype(int i) { return segment.get(record(i) + 1); }
+    public int getRecordPlayer(int i) { return segment.get(record(i) + 2); }
+    public int getRecordOther(int i) { return segment.get(record(i) + 3); }
+    public int getRecordTurn(int i) { return segment.getInt(record(i) + 4); }
+    public int getRecordTarget(int i) { return segment.getInt(record(i) + 8); }
+    public int getRecordValue(int i) { return segment.getInt(record(i) + 12); }
+    public int getRecordSecondValue(int i) { return segment.getInt(record(i) + 16); }
+
+    private int record(int i) {
+        return base + GameArchive.GAME_HEADER_SIZE + i * GameHistory.RECORD_SIZE;
+    }
+}
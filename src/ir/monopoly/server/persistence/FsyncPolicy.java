@@ -0,0 +1,23 @@
+package ir.monopoly.server.persistence;
+
+/**
+ * When the journal forces written batches to disk. GROUP fsyncs every batch, so all
+ * records appended while the previous fsync ran share the next one; INTERVAL fsyncs
+ * at most every few milliseconds and forces a quiet tail once that interval is up;
+ * NONE leaves it to the OS.
+ */
+public enum FsyncPolicy {
+    GROUP,
+    INTERVAL,
+    NONE;
+
+    public static final String PROPERTY = "monopoly.journal.fsync";
+
+    public static FsyncPolicy fromSystemProperty() {
+        String value = System.getProperty(PROPERTY, "group");
+        for (FsyncPolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(value)) return policy;
+        }
+        return GROUP;
+    }
+}
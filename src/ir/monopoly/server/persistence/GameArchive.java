@@ -0,0 +1,229 @@
+package ir.monopoly.server.persistence;
+
+import ir.monopoly.server.game.GameState;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.player.PlayerStatus;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Archive of finished games in a directory of memory-mapped files. Games are appended
+ * to segment files of SEGMENT_SIZE bytes as a 64-byte game header followed by the
+ * game's fixed-width records; a new segment is started when the current one is full.
+ * index.arc maps game ids (1, 2, 3, ...) to their segment and offset with fixed-width
+ * entries, so the entry of a game sits at a computable position.
+ *
+ * A game is written first and its index entry after; the game count in the index
+ * header is bumped last and is what makes the game visible. flush() forces the mapped
+ * pages to disk; without it the archive survives a process crash but not an OS crash.
+ * requestFlush() hands that to a background thread instead, so games that finish
+ * while one force is running share the next one and no room waits on the disk.
+ *
+ * index.arc: [int magic][int version][long gameCount], then per game
+ * [long gameId][int segment][int offset][int length][int recordCount].
+ * Segments: [int magic][int version][int segment][int reserved], then games.
+ */
+public class GameArchive implements Closeable {
+    static final int MAGIC = 0x4D415243;
+    static final int VERSION = 1;
+    static final int INDEX_HEADER_SIZE = 16;
+    static final int INDEX_ENTRY_SIZE = 24;
+    static final int SEGMENT_HEADER_SIZE = 16;
+    static final int GAME_HEADER_SIZE = 64;
+    static final int MAX_PLAYERS = 4;
+    public static final int SEGMENT_SIZE = 64 << 20;
+    private static final int INDEX_GROWTH = 1 << 16;
+
+    private final Path directory;
+    private final FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private long gameCount;
+    private MappedByteBuffer segment;
+    private int segmentNumber;
+    private int segmentEnd;
+    private long bytesWritten = 0;
+    private MappedByteBuffer retiredSegment;
+    private boolean flushRequested = false;
+    private boolean closed = false;
+    private final Thread flusher;
+
+    private GameArchive(Path directory, FileChannel indexChannel) {
+        this.directory = directory;
+        this.indexChannel = indexChannel;
+        this.flusher = new Thread(this::flushLoop, "archive-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public static GameArchive open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path indexPath = indexPath(directory);
+        boolean exists = Files.exists(indexPath) && Files.size(indexPath) >= INDEX_HEADER_SIZE;
+        FileChannel channel = FileChannel.open(indexPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        GameArchive archive = new GameArchive(directory, channel);
+
+        if (!exists) {
+            archive.index = channel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER_SIZE + (long) INDEX_ENTRY_SIZE * INDEX_GROWTH);
+            archive.index.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, 0);
+            archive.openSegment(0, SEGMENT_SIZE);
+            return archive;
+        }
+
+        archive.index = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (archive.index.getInt(0) != MAGIC || archive.index.getInt(4) != VERSION) {
+            archive.stopFlusher();
+            channel.close();
+            throw new IOException("Not a game archive: " + directory);
+        }
+        archive.gameCount = archive.index.getLong(8);
+        if (archive.gameCount == 0) {
+            archive.openSegment(0, SEGMENT_SIZE);
+        } else {
+            int last = entryPosition(archive.gameCount);
+            archive.openSegment(archive.index.getInt(last + 8), SEGMENT_SIZE);
+            archive.segmentEnd = archive.index.getInt(last + 12) + archive.index.getInt(last + 16);
+        }
+        return archive;
+    }
+
+    static Path indexPath(Path directory) {
+        return directory.resolve("index.arc");
+    }
+
+    static Path segmentPath(Path directory, int segment) {
+        return directory.resolve(String.format("segment-%05d.arc", segment));
+    }
+
+    static int entryPosition(long gameId) {
+        return INDEX_HEADER_SIZE + (int) (gameId - 1) * INDEX_ENTRY_SIZE;
+    }
+
+    /** Writes the finished game and returns its id. */
+    public synchronized long append(GameHistory history) throws IOException {
+        GameState gs = history.getGameState();
+        ByteBuffer records = history.records();
+        int length = GAME_HEADER_SIZE + records.remaining();
+        if (segmentEnd + length > segment.capacity()) {
+            openSegment(segmentNumber + 1, Math.max(SEGMENT_SIZE, SEGMENT_HEADER_SIZE + length));
+        }
+
+        long gameId = gameCount + 1;
+        Player[] players = gs.getPlayers();
+        int offset = segmentEnd;
+        segment.putLong(offset, gameId)
+                .putLong(offset + 8, gs.getDice().getSeed())
+                .putInt(offset + 16, history.getRecordCount())
+                .putInt(offset + 20, gs.getTurnManager().getTurnCounter())
+                .putInt(offset + 24, winnerId(gs))
+                .put(offset + 28, (byte) Math.min(players.length, MAX_PLAYERS))
+                .put(offset + 29, (byte) (history.isPartial() ? 1 : 0));
+        for (int seat = 0; seat < MAX_PLAYERS; seat++) {
+            boolean seated = seat < players.length;
+            segment.putInt(offset + 32 + 4 * seat, seated ? players[seat].getPlayerId() : 0);
+            segment.putInt(offset + 48 + 4 * seat, seated ? players[seat].getBalance() : 0);
+        }
+        segment.put(offset + GAME_HEADER_SIZE, records, 0, records.remaining());
+        segmentEnd += length;
+
+        if (entryPosition(gameId + 1) > index.capacity()) {
+            index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, index.capacity() + (long) INDEX_ENTRY_SIZE * INDEX_GROWTH);
+        }
+        int entry = entryPosition(gameId);
+        index.putLong(entry, gameId).putInt(entry + 8, segmentNumber).putInt(entry + 12, offset)
+                .putInt(entry + 16, length).putInt(entry + 20, history.getRecordCount());
+        index.putLong(8, gameId);
+        gameCount = gameId;
+        bytesWritten += length;
+        return gameId;
+    }
+
+    private static int winnerId(GameState gs) {
+        if (!gs.isGameOver()) return 0;
+        for (Player p : gs.getPlayers()) {
+            if (p.getStatus() != PlayerStatus.BANKRUPT) return p.getPlayerId();
+        }
+        return 0;
+    }
+
+    private void openSegment(int number, int size) throws IOException {
+        if (segment != null) {
+            retiredSegment = segment;
+            requestFlush();
+        }
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        }
+        segment.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, number);
+        segmentNumber = number;
+        segmentEnd = SEGMENT_HEADER_SIZE;
+    }
+
+    public void flush() {
+        MappedByteBuffer retired;
+        MappedByteBuffer current;
+        MappedByteBuffer currentIndex;
+        synchronized (this) {
+            retired = retiredSegment;
+            retiredSegment = null;
+            current = segment;
+            currentIndex = index;
+        }
+        // Forced outside the monitor so append() can go on writing meanwhile.
+        if (retired != null) retired.force();
+        current.force();
+        currentIndex.force();
+    }
+
+    public synchronized void requestFlush() {
+        flushRequested = true;
+        notifyAll();
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (this) {
+                while (!flushRequested && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // The flusher is only stopped through close().
+                    }
+                }
+                if (!flushRequested) return;
+                flushRequested = false;
+            }
+            flush();
+        }
+    }
+
+    public synchronized long getGameCount() { return gameCount; }
+    public synchronized long getBytesWritten() { return bytesWritten; }
+    public Path getDirectory() { return directory; }
+
+    private void stopFlusher() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        stopFlusher();
+        flush();
+        indexChannel.close();
+    }
+}
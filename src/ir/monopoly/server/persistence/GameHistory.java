@@ -0,0 +1,88 @@
+package ir.monopoly.server.persistence;
+
+import ir.monopoly.server.game.GameAction;
+import ir.monopoly.server.game.GameRecorder;
+import ir.monopoly.server.game.GameState;
+import java.nio.ByteBuffer;
+
+/**
+ * Collects the effects of one game as fixed-width records while it is played, so the
+ * game can be written to the GameArchive when it ends. The record layout is described
+ * in ArchivedGame. Trade property lists and card texts are not kept; a card record
+ * holds its draw number in the deck instead.
+ */
+public class GameHistory implements GameRecorder {
+    public static final int RECORD_SIZE = 20;
+    private static final int INITIAL_RECORDS = 256;
+
+    private final GameState gameState;
+    private final boolean partial;
+    private ByteBuffer records = ByteBuffer.allocate(RECORD_SIZE * INITIAL_RECORDS);
+
+    public GameHistory(GameState gameState) {
+        this(gameState, false);
+    }
+
+    /** partial: the game was restored mid-way, so the records before that point are missing. */
+    public GameHistory(GameState gameState, boolean partial) {
+        this.gameState = gameState;
+        this.partial = partial;
+    }
+
+    @Override
+    public void onRoll(int playerId, int die1, int die2, long rollIndex) {
+        add(RecordType.ROLL, 0, playerId, 0, 0, die1, die2);
+    }
+
+    @Override
+    public void onRent(int fromId, int toId, int amount) {
+        add(RecordType.RENT, 0, fromId, toId, 0, amount, 0);
+    }
+
+    @Override
+    public void onCardDrawn(int playerId, boolean chance, String description) {
+        long draws = chance ? gameState.getCardDeck().getChanceDraws() : gameState.getCardDeck().getCommunityChestDraws();
+        add(RecordType.CARD, chance ? 1 : 0, playerId, 0, 0, (int) draws, 0);
+    }
+
+    @Override
+    public void onAuctionWon(int winnerId, int propertyId, int amount) {
+        add(RecordType.AUCTION_WON, 0, winnerId, 0, propertyId, amount, 0);
+    }
+
+    @Override
+    public void onBankruptcy(int playerId, int creditorId) {
+        add(RecordType.BANKRUPTCY, 0, playerId, creditorId, 0, 0, 0);
+    }
+
+    @Override
+    public void onAction(GameAction action) {
+        if (action.getType() == GameAction.ActionType.TRADE) {
+            add(RecordType.ACTION, action.getType().ordinal(), action.getPlayerId(), action.getOtherPlayerId(),
+                    0, action.getOfferedCash(), action.getRequestedCash());
+        } else {
+            add(RecordType.ACTION, action.getType().ordinal(), action.getPlayerId(), 0, action.getTargetId(),
+                    action.getOldValue(), action.getNewValue());
+        }
+    }
+
+    private void add(RecordType type, int subtype, int playerId, int otherId, int targetId, int value, int secondValue) {
+        if (records.remaining() < RECORD_SIZE) {
+            ByteBuffer bigger = ByteBuffer.allocate(records.capacity() * 2);
+            bigger.put(records.flip());
+            records = bigger;
+        }
+        records.put(type.code()).put((byte) subtype).put((byte) playerId).put((byte) otherId)
+                .putInt(gameState.getTurnManager().getTurnCounter())
+                .putInt(targetId).putInt(value).putInt(secondValue);
+    }
+
+    public GameState getGameState() { return gameState; }
+    public boolean isPartial() { return partial; }
+    public int getRecordCount() { return records.position() / RECORD_SIZE; }
+
+    /** The encoded records, without copying. */
+    ByteBuffer records() {
+        return records.duplicate().flip();
+    }
+}
@@ -0,0 +1,396 @@
+package ir.monopoly.server.persistence;
+
+import ir.monopoly.server.game.GameAction;
+import ir.monopoly.server.property.Property;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary journal shared by all rooms. Room threads encode records into an
+ * in-memory buffer and return; a single flusher thread swaps the buffer out, writes it
+ * as one CRC-protected frame with a FileChannel and fsyncs according to the policy.
+ * Everything appended while a write/fsync is in progress goes out in the next frame
+ * (group commit).
+ *
+ * Appending never waits for the disk, so a room answers a command before its record
+ * is durable: a crash can lose the last unflushed batch (GROUP) or up to
+ * FSYNC_INTERVAL_NANOS of input (INTERVAL) even though the clients saw the results.
+ * Callers that need more, like the snapshot writer, wait with sync().
+ *
+ * File layout: frames of [int length][int crc32c][records]; each record is
+ * [int length][byte type][int roomId][payload]. A torn last frame fails its CRC and
+ * is dropped on the next open. Records are numbered from 1 in file order, and the
+ * numbering carries on across restarts (see JournalPosition).
+ */
+public class GameJournal implements Closeable {
+    static final int BUFFER_SIZE = 1 << 20;
+    static final int FRAME_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 9;
+    private static final int MAX_STRING_BYTES = 4096;
+    private static final long FSYNC_INTERVAL_NANOS = 5_000_000L;
+
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasData = lock.newCondition();
+    private final Condition hasSpace = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final Thread flusher;
+    private ByteBuffer active = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private ByteBuffer flushing = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private int recordStart;
+    private long appendedRecords;
+    private long durableRecords;
+    private long unforcedRecords = 0;
+    private boolean closed = false;
+
+    private volatile JournalPosition writtenPosition;
+    private volatile long bytesWritten = 0;
+    private volatile long frameCount = 0;
+    private volatile long fsyncCount = 0;
+
+    private GameJournal(FileChannel channel, FsyncPolicy fsyncPolicy, JournalPosition end) {
+        this.channel = channel;
+        this.fsyncPolicy = fsyncPolicy;
+        this.writtenPosition = end;
+        this.appendedRecords = end.getRecords();
+        this.durableRecords = end.getRecords();
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /** Opens the journal for appending, cutting off a torn tail left by a crash. */
+    public static GameJournal open(Path path, FsyncPolicy fsyncPolicy) throws IOException {
+        return open(path, fsyncPolicy, JournalPosition.START);
+    }
+
+    /** As open(path, policy), but only reads the journal from a known intact boundary on. */
+    public static GameJournal open(Path path, FsyncPolicy fsyncPolicy, JournalPosition intactUpTo) throws IOException {
+        JournalPosition end = JournalReader.end(path, intactUpTo);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(end.getOffset());
+        channel.position(end.getOffset());
+        return new GameJournal(channel, fsyncPolicy, end);
+    }
+
+    public void roomCreated(int roomId, long seed, int[] playerIds) {
+        lock.lock();
+        try {
+            ByteBuffer b = begin(RecordType.ROOM_CREATED, roomId, 9 + 4 * playerIds.length);
+            b.putLong(seed).put((byte) playerIds.length);
+            for (int id : playerIds) b.putInt(id);
+            end(b);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void command(int roomId, int playerId, String line) {
+        byte[] text = encode(line);
+        lock.lock();
+        try {
+            ByteBuffer b = begin(RecordType.COMMAND, roomId, 6 + text.length);
+            b.putInt(playerId).putShort((short) text.length).put(text);
+            end(b);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void disconnect(int roomId, int playerId) {
+        lock.lock();
+        try {
+            end(begin(RecordType.DISCONNECT, roomId, 4).putInt(playerId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void roomClosed(int roomId) {
+        lock.lock();
+        try {
+            end(begin(RecordType.ROOM_CLOSED, roomId, 0));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void roll(int roomId, int playerId, int die1, int die2, long rollIndex) {
+        lock.lock();
+        try {
+            end(begin(RecordType.ROLL, roomId, 14)
+                    .putInt(playerId).put((byte) die1).put((byte) die2).putLong(rollIndex));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void rent(int roomId, int fromId, int toId, int amount) {
+        lock.lock();
+        try {
+            end(begin(RecordType.RENT, roomId, 12).putInt(fromId).putInt(toId).putInt(amount));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void card(int roomId, int playerId, boolean chance, String description) {
+        byte[] text = encode(description);
+        lock.lock();
+        try {
+            ByteBuffer b = begin(RecordType.CARD, roomId, 7 + text.length);
+            b.putInt(playerId).put((byte) (chance ? 1 : 0)).putShort((short) text.length).put(text);
+            end(b);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void auctionWon(int roomId, int winnerId, int propertyId, int amount) {
+        lock.lock();
+        try {
+            end(begin(RecordType.AUCTION_WON, roomId, 12).putInt(winnerId).putInt(propertyId).putInt(amount));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void bankruptcy(int roomId, int playerId, int creditorId) {
+        lock.lock();
+        try {
+            end(begin(RecordType.BANKRUPTCY, roomId, 8).putInt(playerId).putInt(creditorId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void action(int roomId, GameAction action) {
+        Property[] offered = action.getOfferedProperties();
+        Property[] requested = action.getRequestedProperties();
+        int offeredCount = offered == null ? 0 : offered.length;
+        int requestedCount = requested == null ? 0 : requested.length;
+
+        lock.lock();
+        try {
+            ByteBuffer b = begin(RecordType.ACTION, roomId, 31 + 4 * (offeredCount + requestedCount));
+            b.put((byte) action.getType().ordinal())
+                    .putInt(action.getPlayerId())
+                    .putInt(action.getOtherPlayerId())
+                    .putInt(action.getOldValue())
+                    .putInt(action.getNewValue())
+                    .putInt(action.getTargetId())
+                    .putInt(action.getOfferedCash())
+                    .putInt(action.getRequestedCash());
+            putPropertyIds(b, offered, offeredCount);
+            putPropertyIds(b, requested, requestedCount);
+            end(b);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void putPropertyIds(ByteBuffer b, Property[] properties, int count) {
+        b.put((byte) count);
+        for (int i = 0; i < count; i++) {
+            b.putInt(properties[i] == null ? -1 : properties[i].getPropertyId());
+        }
+    }
+
+    private static byte[] encode(String text) {
+        byte[] bytes = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_STRING_BYTES) return bytes;
+        byte[] truncated = new byte[MAX_STRING_BYTES];
+        System.arraycopy(bytes, 0, truncated, 0, MAX_STRING_BYTES);
+        return truncated;
+    }
+
+    public static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort() & 0xFFFF];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Called with the lock held.
+    private ByteBuffer begin(RecordType type, int roomId, int payloadSize) {
+        int needed = RECORD_HEADER_SIZE + payloadSize;
+        while (!closed && active.remaining() < needed) {
+            hasSpace.awaitUninterruptibly();
+        }
+        if (closed) active.clear();
+        recordStart = active.position();
+        return active.putInt(0).put(type.code()).putInt(roomId);
+    }
+
+    // Called with the lock held.
+    private void end(ByteBuffer b) {
+        b.putInt(recordStart, b.position() - recordStart - 4);
+        appendedRecords++;
+        hasData.signal();
+    }
+
+    /** Blocks until everything appended so far has been written (and fsynced, unless the policy is NONE). */
+    public void sync() {
+        sync(getRecordCount());
+    }
+
+    /** Like sync(), but waits only for the first records appended. */
+    public void sync(long records) {
+        lock.lock();
+        try {
+            while (!closed && durableRecords < records) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        CRC32C crc = new CRC32C();
+        ByteBuffer header = ByteBuffer.allocateDirect(FRAME_HEADER_SIZE);
+        long lastFsync = System.nanoTime();
+
+        while (true) {
+            long batchRecords;
+            boolean forceOnly = false;
+            lock.lock();
+            try {
+                // Under INTERVAL an unforced tail is forced once the interval runs out, even if nothing else arrives.
+                while (!closed && active.position() == 0) {
+                    if (unforcedRecords == 0) {
+                        hasData.awaitUninterruptibly();
+                        continue;
+                    }
+                    long wait = FSYNC_INTERVAL_NANOS - (System.nanoTime() - lastFsync);
+                    if (wait <= 0) {
+                        forceOnly = true;
+                        break;
+                    }
+                    try {
+                        hasData.awaitNanos(wait);
+                    } catch (InterruptedException e) {
+                        // The flusher is only stopped through close().
+                    }
+                }
+                if (!forceOnly && active.position() == 0) break;
+
+                if (forceOnly) {
+                    batchRecords = unforcedRecords;
+                } else {
+                    ByteBuffer full = active;
+                    active = flushing;
+                    flushing = full;
+                    batchRecords = appendedRecords;
+                    hasSpace.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            boolean forced = false;
+            try {
+                if (!forceOnly) {
+                    flushing.flip();
+                    crc.reset();
+                    crc.update(flushing.duplicate());
+                    header.clear();
+                    header.putInt(flushing.remaining()).putInt((int) crc.getValue()).flip();
+                    long frameBytes = FRAME_HEADER_SIZE + flushing.remaining();
+                    ByteBuffer[] frame = {header, flushing};
+                    while (flushing.hasRemaining()) {
+                        channel.write(frame);
+                    }
+                    bytesWritten += frameBytes;
+                    frameCount++;
+                    writtenPosition = new JournalPosition(writtenPosition.getOffset() + frameBytes, batchRecords);
+                }
+
+                long now = System.nanoTime();
+                if (forceOnly || fsyncPolicy == FsyncPolicy.GROUP ||
+                        (fsyncPolicy == FsyncPolicy.INTERVAL && now - lastFsync >= FSYNC_INTERVAL_NANOS)) {
+                    channel.force(false);
+                    fsyncCount++;
+                    lastFsync = now;
+                    forced = true;
+                }
+            } catch (IOException e) {
+                System.err.println("JOURNAL ERROR: " + e.getMessage() + ". Journaling stopped.");
+                lock.lock();
+                try {
+                    closed = true;
+                    hasSpace.signalAll();
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            } finally {
+                flushing.clear();
+            }
+
+            lock.lock();
+            try {
+                if (forced || fsyncPolicy == FsyncPolicy.NONE) {
+                    durableRecords = batchRecords;
+                    unforcedRecords = 0;
+                    flushed.signalAll();
+                } else {
+                    unforcedRecords = batchRecords;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            hasData.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    public FsyncPolicy getFsyncPolicy() { return fsyncPolicy; }
+    public long getBytesWritten() { return bytesWritten; }
+    public long getFrameCount() { return frameCount; }
+    public long getFsyncCount() { return fsyncCount; }
+
+    /**
+     * Boundary after the last frame handed to the file. Every record appended after this
+     * call lies beyond it.
+     */
+    public JournalPosition getWrittenPosition() { return writtenPosition; }
+
+    /** Number of the last record appended. */
+    public long getRecordCount() {
+        lock.lock();
+        try {
+            return appendedRecords;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
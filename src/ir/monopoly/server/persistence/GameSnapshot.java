@@ -0,0 +1,336 @@
+package ir.monopoly.server.persistence;
+
+import ir.monopoly.server.datastructure.TransactionGraph;
+import ir.monopoly.server.game.CardDeck;
+import ir.monopoly.server.game.GameAction;
+import ir.monopoly.server.game.GameController;
+import ir.monopoly.server.game.GameInitializer;
+import ir.monopoly.server.game.GamePhase;
+import ir.monopoly.server.game.GameState;
+import ir.monopoly.server.game.TurnCheckpoint;
+import ir.monopoly.server.game.TurnManager;
+import ir.monopoly.server.game.UndoManager;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.player.PlayerStatus;
+import ir.monopoly.server.property.Property;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary image of one room's game, taken between commands while no auction
+ * or trade is open. It stores what cannot be rebuilt cheaply: players, holdings and
+ * buildings, turn state, card piles, the transaction graph and rent totals, the undo/redo checkpoints
+ * and an open buy offer. The board comes from GameInitializer and the dice are the
+ * journaled seed fast-forwarded to the stored roll index. The header also says which
+ * journal records the snapshot covers: the room's records numbered up to
+ * journalRecords, all of which lie before the replayFrom boundary's later records.
+ */
+public class GameSnapshot {
+    private static final int MAGIC = 0x4D534E50;
+    private static final byte VERSION = 7;
+    private static final GameAction.ActionType[] ACTION_TYPES = GameAction.ActionType.values();
+    private static final GamePhase[] PHASES = GamePhase.values();
+    private static final PlayerStatus[] STATUSES = PlayerStatus.values();
+
+    private final int roomId;
+    private final long inputSeq;
+    private final long journalRecords;
+    private final JournalPosition replayFrom;
+    private final ByteBuffer body;
+    private int pendingPurchaseId = -1;
+
+    private GameSnapshot(int roomId, long inputSeq, long journalRecords, JournalPosition replayFrom, ByteBuffer body) {
+        this.roomId = roomId;
+        this.inputSeq = inputSeq;
+        this.journalRecords = journalRecords;
+        this.replayFrom = replayFrom;
+        this.body = body;
+    }
+
+    public static boolean canCapture(GameState gs) {
+        return !gs.isAuctionActive() && gs.getPendingTrade() == null;
+    }
+
+    /**
+     * Encodes the game; inputSeq is the number of journaled inputs of the room it reflects,
+     * journalRecords the journal's last record number and replayFrom its written position
+     * at the time, so every later record of the room lies beyond replayFrom.
+     */
+    public static byte[] capture(int roomId, long inputSeq, long journalRecords, JournalPosition replayFrom,
+                                 GameState gs, GameController controller) {
+        Player[] players = gs.getPlayers();
+        int boardSize = gs.getBoard().getSize();
+        UndoManager history = gs.getUndoManager();
+        TransactionGraph graph = gs.getTransactionGraph();
+        int n = graph.getNumPlayers();
+
+        int nameBytes = 0;
+        for (Player p : players) nameBytes += p.getName().length() * 3;
+
+        ByteBuffer b = ByteBuffer.allocate(152 + players.length * 32 + nameBytes + boardSize * 10 +
+                (n + 1) * (n + 1) * 10 + n * 16 + historySize(history, players.length, boardSize));
+        b.putInt(MAGIC).put(VERSION).putInt(roomId).putLong(inputSeq)
+                .putLong(journalRecords).putLong(replayFrom.getOffset()).putLong(replayFrom.getRecords());
+        b.putLong(gs.getDice().getSeed()).putLong(gs.getDice().getRollIndex());
+        CardDeck deck = gs.getCardDeck();
+        putPile(b, deck.getChanceDraws(), deck.getChanceOrder());
+        putPile(b, deck.getCommunityChestDraws(), deck.getCommunityChestOrder());
+
+        TurnManager tm = gs.getTurnManager();
+        b.putInt(tm.getCurrentPlayerIndex()).put((byte) tm.getCurrentPhase().ordinal()).putInt(tm.getTurnCounter())
+                .putInt(tm.getConsecutiveDoubles()).put((byte) (tm.wasLastRollDoubles() ? 1 : 0));
+
+        Property pending = controller == null ? null : controller.getPendingPurchase();
+        b.putInt(pending == null ? -1 : pending.getPropertyId());
+
+        b.put((byte) players.length);
+        for (Player p : players) {
+            byte[] name = p.getName().getBytes(StandardCharsets.UTF_8);
+            b.putInt(p.getPlayerId()).putShort((short) name.length).put(name)
+                    .putInt(p.getBalance()).putInt(p.getCurrentPosition())
+                    .put((byte) p.getStatus().ordinal()).putInt(p.getJailTurns())
+                    .put((byte) ((p.hasChanceJailCard() ? 1 : 0) | (p.hasCommunityJailCard() ? 2 : 0)));
+        }
+
+        int countPos = b.position();
+        b.putShort((short) 0);
+        short properties = 0;
+        for (int id = 0; id < boardSize; id++) {
+            Property prop = gs.getPropertyById(id);
+            if (prop == null) continue;
+            boolean changed = prop.getOwnerId() != null || prop.getHouseCount() > 0 || prop.hasHotel() || prop.isMortgaged();
+            if (!changed) continue;
+            b.putInt(id).putInt(prop.getOwnerId() == null ? 0 : prop.getOwnerId())
+                    .put((byte) prop.getHouseCount())
+                    .put((byte) ((prop.hasHotel() ? 1 : 0) | (prop.isMortgaged() ? 2 : 0)));
+            properties++;
+        }
+        b.putShort(countPos, properties);
+
+        countPos = b.position();
+        b.putShort((short) 0);
+        short edges = 0;
+        for (int from = 0; from <= n; from++) {
+            for (int to = 0; to <= n; to++) {
+                long amount = graph.getAmount(from, to);
+                if (amount == 0) continue;
+                b.put((byte) from).put((byte) to).putLong(amount);
+                edges++;
+            }
+        }
+        b.putShort(countPos, edges);
+        for (int id = 1; id <= n; id++) {
+            b.putLong(graph.getRentPaid(id)).putLong(graph.getRentReceived(id));
+        }
+
+        putHistory(b, history);
+
+        byte[] bytes = new byte[b.position()];
+        b.flip().get(bytes);
+        return bytes;
+    }
+
+    private static void putPile(ByteBuffer b, long draws, int[] order) {
+        b.putLong(draws).put((byte) order.length);
+        for (int card : order) b.put((byte) card);
+    }
+
+    private static int[] readPile(ByteBuffer b) {
+        int[] order = new int[b.get()];
+        for (int i = 0; i < order.length; i++) order[i] = b.get();
+        return order;
+    }
+
+    public static GameSnapshot read(byte[] bytes) {
+        ByteBuffer b = ByteBuffer.wrap(bytes);
+        if (b.getInt() != MAGIC || b.get() != VERSION) {
+            throw new IllegalArgumentException("Not a game snapshot");
+        }
+        int roomId = b.getInt();
+        long inputSeq = b.getLong();
+        long journalRecords = b.getLong();
+        JournalPosition replayFrom = new JournalPosition(b.getLong(), b.getLong());
+        return new GameSnapshot(roomId, inputSeq, journalRecords, replayFrom, b.slice());
+    }
+
+    public int getRoomId() { return roomId; }
+    public long getInputSeq() { return inputSeq; }
+    public long getJournalRecords() { return journalRecords; }
+    public JournalPosition getReplayFrom() { return replayFrom; }
+
+    /** Rebuilds the game and returns it with event logging off; the open buy offer is applied to the new controller separately. */
+    public GameState restore() {
+        ByteBuffer b = body.duplicate();
+        long seed = b.getLong();
+        long rollIndex = b.getLong();
+        long chanceDraws = b.getLong();
+        int[] chanceOrder = readPile(b);
+        long communityChestDraws = b.getLong();
+        int[] communityChestOrder = readPile(b);
+        int currentIndex = b.getInt();
+        GamePhase phase = PHASES[b.get()];
+        int turnCounter = b.getInt();
+        int consecutiveDoubles = b.getInt();
+        boolean lastRollDoubles = b.get() == 1;
+        pendingPurchaseId = b.getInt();
+
+        int playerCount = b.get();
+        List<Player> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            int id = b.getInt();
+            byte[] name = new byte[b.getShort()];
+            b.get(name);
+            Player p = new Player(id, new String(name, StandardCharsets.UTF_8), b.getInt());
+            p.setCurrentPosition(b.getInt());
+            p.setStatus(STATUSES[b.get()]);
+            p.setJailTurns(b.getInt());
+            byte jailCards = b.get();
+            if ((jailCards & 1) != 0) p.addGetOutOfJailFreeCard(true);
+            if ((jailCards & 2) != 0) p.addGetOutOfJailFreeCard(false);
+            players.add(p);
+        }
+
+        GameState gs = GameInitializer.initializeGame(players, false, seed);
+        gs.getDice().fastForward(rollIndex);
+        gs.getCardDeck().restore(chanceDraws, chanceOrder, communityChestDraws, communityChestOrder);
+        gs.getTurnManager().restore(currentIndex, phase, turnCounter, consecutiveDoubles, lastRollDoubles);
+
+        int properties = b.getShort();
+        for (int i = 0; i < properties; i++) {
+            Property prop = gs.getPropertyById(b.getInt());
+            int owner = b.getInt();
+            int houses = b.get();
+            byte flags = b.get();
+            for (int h = 0; h < houses; h++) prop.addHouse();
+            if ((flags & 1) != 0) prop.addHotel();
+            prop.setMortgaged((flags & 2) != 0);
+            if (owner != 0) gs.getPlayerById(owner).addProperty(prop);
+        }
+
+        int edges = b.getShort();
+        for (int i = 0; i < edges; i++) {
+            restoreEdge(gs.getTransactionGraph(), b.get(), b.get(), b.getLong());
+        }
+        for (int id = 1; id <= gs.getTransactionGraph().getNumPlayers(); id++) {
+            gs.getTransactionGraph().restoreRent(id, b.getLong(), b.getLong());
+        }
+
+        restoreHistory(b, gs);
+        return gs;
+    }
+
+    /** The open buy offer of the restored game; call after restore(). */
+    public Property getPendingPurchase(GameState restored) {
+        return pendingPurchaseId < 0 ? null : restored.getPropertyById(pendingPurchaseId);
+    }
+
+    /** recordTransaction takes int amounts; a total beyond that is restored in int-sized parts. */
+    private static void restoreEdge(TransactionGraph graph, int from, int to, long amount) {
+        while (amount > 0) {
+            int part = (int) Math.min(amount, Integer.MAX_VALUE);
+            graph.recordTransaction(from, to, part);
+            amount -= part;
+        }
+    }
+
+    private static int historySize(UndoManager history, int players, int boardSize) {
+        int checkpoints = 1;
+        for (int i = 0; i < history.getHistorySize(); i++) {
+            if (history.isCheckpoint(i)) checkpoints++;
+        }
+        return history.getHistorySize() * 17 + checkpoints * (64 + players * 20 + boardSize * 4);
+    }
+
+    /**
+     * Entries oldest first as [type][player][target][delta][turn], type -1 marking a
+     * checkpoint entry followed by its checkpoint, then the redo tip if there is one. A
+     * property array or pile order shared with the previous checkpoint is written as a
+     * flag, so the restored checkpoints share it again.
+     */
+    private static void putHistory(ByteBuffer b, UndoManager history) {
+        b.putInt(history.getHistorySize()).putInt(history.getCursor());
+        TurnCheckpoint previous = null;
+        for (int i = 0; i < history.getHistorySize(); i++) {
+            boolean checkpoint = history.isCheckpoint(i);
+            b.put(checkpoint ? -1 : (byte) history.getType(i).ordinal()).putInt(history.getPlayerId(i))
+                    .putInt(history.getTargetId(i)).putInt(history.getDelta(i)).putInt(history.getTurn(i));
+            if (checkpoint) {
+                putCheckpoint(b, history.getCheckpoint(i), previous);
+                previous = history.getCheckpoint(i);
+            }
+        }
+        TurnCheckpoint tip = history.getRedoTip();
+        b.put((byte) (tip == null ? 0 : 1));
+        if (tip != null) putCheckpoint(b, tip, previous);
+    }
+
+    private static void putCheckpoint(ByteBuffer b, TurnCheckpoint c, TurnCheckpoint previous) {
+        b.putInt(c.getTurnCounter()).putInt(c.getCurrentPlayerIndex()).put((byte) c.getPhase())
+                .putInt(c.getConsecutiveDoubles()).put((byte) (c.wasLastRollDoubles() ? 1 : 0))
+                .putInt(c.getPendingPurchaseId());
+        for (int value : c.getPlayers()) b.putInt(value);
+        putShared(b, c.getProperties(), previous == null ? null : previous.getProperties(), false);
+        putShared(b, c.getChanceOrder(), previous == null ? null : previous.getChanceOrder(), true);
+        putShared(b, c.getCommunityChestOrder(), previous == null ? null : previous.getCommunityChestOrder(), true);
+    }
+
+    private static void putShared(ByteBuffer b, int[] values, int[] previous, boolean bytes) {
+        if (values == previous) {
+            b.put((byte) 1);
+            return;
+        }
+        b.put((byte) 0).putShort((short) values.length);
+        for (int value : values) {
+            if (bytes) b.put((byte) value);
+            else b.putInt(value);
+        }
+    }
+
+    private static int[] readShared(ByteBuffer b, int[] previous, boolean bytes) {
+        if (b.get() == 1) return previous;
+        int[] values = new int[b.getShort()];
+        for (int i = 0; i < values.length; i++) values[i] = bytes ? b.get() : b.getInt();
+        return values;
+    }
+
+    private static void restoreHistory(ByteBuffer b, GameState gs) {
+        UndoManager history = gs.getUndoManager();
+        int size = b.getInt();
+        int cursor = b.getInt();
+        int playerFields = gs.getPlayers().length * TurnCheckpoint.PLAYER_FIELDS;
+        TurnCheckpoint previous = null;
+        for (int i = 0; i < size; i++) {
+            byte type = b.get();
+            int playerId = b.getInt();
+            int targetId = b.getInt();
+            int delta = b.getInt();
+            int turn = b.getInt();
+            if (type < 0) {
+                previous = readCheckpoint(b, playerFields, previous);
+                history.restoreCheckpoint(previous);
+            } else {
+                history.restoreEntry(ACTION_TYPES[type], playerId, targetId, delta, turn);
+            }
+        }
+        TurnCheckpoint tip = b.get() == 1 ? readCheckpoint(b, playerFields, previous) : null;
+        history.restoreCursor(cursor, tip);
+    }
+
+    private static TurnCheckpoint readCheckpoint(ByteBuffer b, int playerFields, TurnCheckpoint previous) {
+        int turnCounter = b.getInt();
+        int currentPlayerIndex = b.getInt();
+        int phase = b.get();
+        int consecutiveDoubles = b.getInt();
+        boolean lastRollDoubles = b.get() == 1;
+        int pendingPurchaseId = b.getInt();
+        int[] players = new int[playerFields];
+        for (int f = 0; f < playerFields; f++) players[f] = b.getInt();
+        int[] properties = readShared(b, previous == null ? null : previous.getProperties(), false);
+        int[] chanceOrder = readShared(b, previous == null ? null : previous.getChanceOrder(), true);
+        int[] communityChestOrder = readShared(b, previous == null ? null : previous.getCommunityChestOrder(), true);
+        return new TurnCheckpoint(turnCounter, currentPlayerIndex, phase, consecutiveDoubles, lastRollDoubles,
+                pendingPurchaseId, players, properties, chanceOrder, communityChestOrder);
+    }
+}
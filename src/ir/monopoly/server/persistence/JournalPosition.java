@@ -0,0 +1,26 @@
+package ir.monopoly.server.persistence;
+
+/**
+ * A frame boundary in the journal: the byte offset of the boundary and how many
+ * records the journal holds before it. Records are numbered from 1 in file order,
+ * across restarts, so a record number alone says whether a snapshot covers it.
+ */
+public class JournalPosition {
+    public static final JournalPosition START = new JournalPosition(0, 0);
+
+    private final long offset;
+    private final long records;
+
+    public JournalPosition(long offset, long records) {
+        this.offset = offset;
+        this.records = records;
+    }
+
+    public long getOffset() { return offset; }
+    public long getRecords() { return records; }
+
+    @Override
+    public String toString() {
+        return "offset " + offset + ", record " + records;
+    }
+}
@@ -0,0 +1,135 @@
+package ir.monopoly.server.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads a journal written by GameJournal record by record, from the start or from a
+ * frame boundary. Reading stops at the first frame that is cut short or fails its CRC,
+ * i.e. the tail a crash left behind.
+ * Usage: while (reader.next()) { reader.getType(); reader.getRoomId(); reader.getPayload(); }
+ */
+public class JournalReader implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(GameJournal.FRAME_HEADER_SIZE);
+    private final ByteBuffer frame = ByteBuffer.allocate(GameJournal.BUFFER_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private final long startOffset;
+    private long validLength = 0;
+    private long recordNumber;
+    private JournalPosition frameStart;
+    private RecordType type;
+    private int roomId;
+    private ByteBuffer payload;
+
+    public JournalReader(Path path) throws IOException {
+        this(path, JournalPosition.START);
+    }
+
+    /** Starts at a frame boundary; one past the end of the file falls back to the start. */
+    public JournalReader(Path path, JournalPosition from) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        if (from.getOffset() > channel.size()) {
+            System.err.println("JOURNAL: " + from + " is past the end of " + path + ", reading from the start");
+            from = JournalPosition.START;
+        }
+        channel.position(from.getOffset());
+        this.startOffset = from.getOffset();
+        this.recordNumber = from.getRecords();
+        this.frameStart = from;
+        this.frame.limit(0);
+    }
+
+    /** Where the intact part of the journal ends, reading from the given boundary. */
+    public static JournalPosition end(Path path, JournalPosition from) throws IOException {
+        if (!Files.exists(path)) return JournalPosition.START;
+        try (JournalReader reader = new JournalReader(path, from)) {
+            while (reader.next()) {
+                // Counting records.
+            }
+            return reader.getPosition();
+        }
+    }
+
+    /** Length of the intact prefix of the journal; 0 if the file does not exist. */
+    public static long validLength(Path path) throws IOException {
+        if (!Files.exists(path)) return 0;
+        try (JournalReader reader = new JournalReader(path)) {
+            while (reader.nextFrame()) {
+                reader.frame.position(reader.frame.limit());
+            }
+            return reader.validLength;
+        }
+    }
+
+    public boolean next() throws IOException {
+        while (!frame.hasRemaining()) {
+            if (!nextFrame()) return false;
+        }
+        int length = frame.getInt();
+        int end = frame.position() + length;
+        type = RecordType.fromCode(frame.get());
+        roomId = frame.getInt();
+        payload = frame.slice(frame.position(), end - frame.position());
+        frame.position(end);
+        recordNumber++;
+        return true;
+    }
+
+    private boolean nextFrame() throws IOException {
+        frameStart = getPosition();
+        header.clear();
+        if (!readFully(header)) return false;
+        header.flip();
+        int length = header.getInt();
+        int checksum = header.getInt();
+        if (length <= 0 || length > frame.capacity()) return false;
+
+        frame.clear().limit(length);
+        if (!readFully(frame)) {
+            frame.limit(0);
+            return false;
+        }
+        frame.flip();
+        crc.reset();
+        crc.update(frame.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            frame.limit(0);
+            return false;
+        }
+        validLength += GameJournal.FRAME_HEADER_SIZE + length;
+        return true;
+    }
+
+    private boolean readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) return false;
+        }
+        return true;
+    }
+
+    public RecordType getType() { return type; }
+    public int getRoomId() { return roomId; }
+    public ByteBuffer getPayload() { return payload; }
+    public long getValidLength() { return validLength; }
+    /** Number of the record last returned by next(). */
+    public long getRecordNumber() { return recordNumber; }
+    /** Boundary before the frame holding the current record. */
+    public JournalPosition getFrameStart() { return frameStart; }
+
+    /** Boundary after the last intact frame read so far, once its records have been read. */
+    public JournalPosition getPosition() {
+        return new JournalPosition(startOffset + validLength, recordNumber);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
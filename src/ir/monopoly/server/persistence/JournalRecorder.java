@@ -0,0 +1,47 @@
+package ir.monopoly.server.persistence;
+
+import ir.monopoly.server.game.GameAction;
+import ir.monopoly.server.game.GameRecorder;
+
+/**
+ * Writes the effects of one room's game into the shared journal.
+ */
+public class JournalRecorder implements GameRecorder {
+    private final GameJournal journal;
+    private final int roomId;
+
+    public JournalRecorder(GameJournal journal, int roomId) {
+        this.journal = journal;
+        this.roomId = roomId;
+    }
+
+    @Override
+    public void onRoll(int playerId, int die1, int die2, long rollIndex) {
+        journal.roll(roomId, playerId, die1, die2, rollIndex);
+    }
+
+    @Override
+    public void onRent(int fromId, int toId, int amount) {
+        journal.rent(roomId, fromId, toId, amount);
+    }
+
+    @Override
+    public void onCardDrawn(int playerId, boolean chance, String description) {
+        journal.card(roomId, playerId, chance, description);
+    }
+
+    @Override
+    public void onAuctionWon(int winnerId, int propertyId, int amount) {
+        journal.auctionWon(roomId, winnerId, propertyId, amount);
+    }
+
+    @Override
+    public void onBankruptcy(int playerId, int creditorId) {
+        journal.bankruptcy(roomId, playerId, creditorId);
+    }
+
+    @Override
+    public void onAction(GameAction action) {
+        journal.action(roomId, action);
+    }
+}
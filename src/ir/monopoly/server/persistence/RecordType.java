@@ -0,0 +1,29 @@
+package ir.monopoly.server.persistence;
+
+/**
+ * Journal record kinds. ROOM_CREATED, COMMAND, DISCONNECT and ROOM_CLOSED are the
+ * inputs recovery replays; the rest are the effects those inputs produced, kept for
+ * auditing and analytics.
+ */
+public enum RecordType {
+    ROOM_CREATED,
+    COMMAND,
+    DISCONNECT,
+    ROOM_CLOSED,
+    ROLL,
+    RENT,
+    CARD,
+    AUCTION_WON,
+    BANKRUPTCY,
+    ACTION;
+
+    private static final RecordType[] VALUES = values();
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static RecordType fromCode(byte code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : null;
+    }
+}
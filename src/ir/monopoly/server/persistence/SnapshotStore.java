@@ -0,0 +1,327 @@
+package ir.monopoly.server.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps the latest snapshot of every open room as room-<id>.snap in one directory.
+ * Rooms encode their snapshot on their own thread and hand the bytes over; a single
+ * background thread waits until the journal is durable up to the snapshot, then writes
+ * it (fsynced temp file + atomic rename), so a command never waits on the disk and a
+ * snapshot is never ahead of the journal. A room asks for a snapshot every
+ * SNAPSHOT_EVERY_INPUTS journaled inputs or SNAPSHOT_INTERVAL_NANOS, whichever comes first.
+ *
+ * File layout: [int crc32c][GameSnapshot bytes]. A file that fails its CRC or does not
+ * decode is ignored and the room is replayed from the journal instead.
+ *
+ * The store also tracks, for every open room, the journal boundary its recovery would
+ * start from: the boundary before its ROOM_CREATED record, then the replayFrom of its
+ * latest written snapshot. The lowest of them is kept durably in journal.checkpoint
+ * ([int crc32c][long offset][long records][int nextRoomId]), so recovery reads the
+ * journal only from there on. A room whose snapshot is unreadable and whose
+ * ROOM_CREATED lies before the checkpoint cannot be rebuilt.
+ */
+public class SnapshotStore {
+    public static final int SNAPSHOT_EVERY_INPUTS = 200;
+    public static final long SNAPSHOT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final String CHECKPOINT_FILE = "journal.checkpoint";
+    private static final int CHECKPOINT_SIZE = 24;
+
+    private final Path directory;
+    private final ExecutorService writer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, JournalPosition> replayBoundaries = new HashMap<>();
+    private int nextRoomId = 1;
+    private volatile GameJournal journal;
+    private volatile JournalPosition checkpoint = JournalPosition.START;
+    private final AtomicLong snapshotsWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong captureNanos = new AtomicLong();
+    private volatile int lastSnapshotSize = 0;
+    private volatile long lastRestoreMillis = 0;
+    private volatile int lastRestoredRooms = 0;
+    private volatile long lastReplayedInputs = 0;
+
+    public SnapshotStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Snapshots live next to the journal: monopoly.journal -> monopoly.journal.snapshots/. */
+    public static Path directoryFor(Path journalPath) {
+        return journalPath.resolveSibling(journalPath.getFileName() + ".snapshots");
+    }
+
+    public static boolean isDue(long inputsSinceSnapshot, long nanosSinceSnapshot) {
+        return inputsSinceSnapshot >= SNAPSHOT_EVERY_INPUTS ||
+                (inputsSinceSnapshot > 0 && nanosSinceSnapshot >= SNAPSHOT_INTERVAL_NANOS);
+    }
+
+    /**
+     * Registers a room that is about to journal its ROOM_CREATED record; must be called
+     * before that record is appended.
+     */
+    public void roomOpened(int roomId) {
+        lock.lock();
+        try {
+            if (journal == null) return;
+            replayBoundaries.put(roomId, journal.getWrittenPosition());
+            nextRoomId = Math.max(nextRoomId, roomId + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Recovery: registers a rebuilt room with the boundary its replay started from. */
+    public void roomRecovered(int roomId, JournalPosition from) {
+        lock.lock();
+        try {
+            replayBoundaries.put(roomId, from);
+            nextRoomId = Math.max(nextRoomId, roomId + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Starts moving the checkpoint forward as rooms snapshot and close. */
+    public void attachJournal(GameJournal journal) {
+        lock.lock();
+        try {
+            this.journal = journal;
+        } finally {
+            lock.unlock();
+        }
+        writer.execute(this::advanceCheckpoint);
+    }
+
+    /** journalRecords and replayFrom are the journal coordinates the snapshot was captured with. */
+    public void saveAsync(int roomId, byte[] snapshot, long captureTimeNanos, long journalRecords, JournalPosition replayFrom) {
+        captureNanos.addAndGet(captureTimeNanos);
+        writer.execute(() -> {
+            GameJournal journal = this.journal;
+            if (journal != null) journal.sync(journalRecords);
+            Path target = fileFor(roomId);
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            CRC32C crc = new CRC32C();
+            crc.update(snapshot);
+            ByteBuffer header = ByteBuffer.allocate(4).putInt((int) crc.getValue()).flip();
+            ByteBuffer body = ByteBuffer.wrap(snapshot);
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer[] file = {header, body};
+                    while (body.hasRemaining()) {
+                        channel.write(file);
+                    }
+                    channel.force(true);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                snapshotsWritten.incrementAndGet();
+                bytesWritten.addAndGet(snapshot.length);
+                lastSnapshotSize = snapshot.length;
+                snapshotWritten(roomId, replayFrom);
+            } catch (IOException e) {
+                System.err.println("SNAPSHOT ERROR: room " + roomId + ": " + e.getMessage());
+            }
+        });
+    }
+
+    public void deleteAsync(int roomId) {
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(fileFor(roomId));
+            } catch (IOException e) {
+                System.err.println("SNAPSHOT ERROR: room " + roomId + ": " + e.getMessage());
+                return;
+            }
+            lock.lock();
+            try {
+                replayBoundaries.remove(roomId);
+            } finally {
+                lock.unlock();
+            }
+            advanceCheckpoint();
+        });
+    }
+
+    // Runs on the writer thread.
+    private void snapshotWritten(int roomId, JournalPosition position) {
+        lock.lock();
+        try {
+            if (replayBoundaries.containsKey(roomId)) replayBoundaries.put(roomId, position);
+        } finally {
+            lock.unlock();
+        }
+        advanceCheckpoint();
+    }
+
+    /**
+     * Writes the lowest replay boundary of the open rooms as the new checkpoint, once the
+     * journal is durable up to it. With no open rooms, everything written so far is covered.
+     * Runs on the writer thread.
+     */
+    private void advanceCheckpoint() {
+        GameJournal journal;
+        JournalPosition lowest = null;
+        int roomIds;
+        lock.lock();
+        try {
+            journal = this.journal;
+            if (journal == null) return;
+            for (JournalPosition position : replayBoundaries.values()) {
+                if (lowest == null || position.getOffset() < lowest.getOffset()) lowest = position;
+            }
+            if (lowest == null) lowest = journal.getWrittenPosition();
+            roomIds = nextRoomId;
+        } finally {
+            lock.unlock();
+        }
+        if (lowest.getOffset() <= checkpoint.getOffset()) return;
+
+        journal.sync(lowest.getRecords());
+        Path target = directory.resolve(CHECKPOINT_FILE);
+        Path temp = target.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        ByteBuffer body = ByteBuffer.allocate(CHECKPOINT_SIZE - 4)
+                .putLong(lowest.getOffset()).putLong(lowest.getRecords()).putInt(roomIds).flip();
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        ByteBuffer file = ByteBuffer.allocate(CHECKPOINT_SIZE).putInt((int) crc.getValue()).put(body).flip();
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (file.hasRemaining()) {
+                    channel.write(file);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpoint = lowest;
+        } catch (IOException e) {
+            System.err.println("SNAPSHOT ERROR: checkpoint: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recovery: reads journal.checkpoint; without a valid one, or one that does not fit the
+     * journal, the journal is read from the start. getNextRoomId() is valid afterwards.
+     */
+    public JournalPosition loadCheckpoint(Path journalPath) throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file) || !Files.exists(journalPath)) return JournalPosition.START;
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length != CHECKPOINT_SIZE) {
+            System.err.println("SNAPSHOT ERROR: ignoring truncated " + file);
+            return JournalPosition.START;
+        }
+        ByteBuffer b = ByteBuffer.wrap(bytes);
+        int expected = b.getInt();
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 4, bytes.length - 4);
+        if ((int) crc.getValue() != expected) {
+            System.err.println("SNAPSHOT ERROR: ignoring " + file + ": CRC mismatch");
+            return JournalPosition.START;
+        }
+        JournalPosition position = new JournalPosition(b.getLong(), b.getLong());
+        if (position.getOffset() > Files.size(journalPath)) {
+            System.err.println("SNAPSHOT ERROR: ignoring " + file + ": " + position + " is past the end of the journal");
+            return JournalPosition.START;
+        }
+        checkpoint = position;
+        lock.lock();
+        try {
+            nextRoomId = Math.max(nextRoomId, b.getInt());
+        } finally {
+            lock.unlock();
+        }
+        return checkpoint;
+    }
+
+    /** Lowest room id never journaled, as far as the checkpoint and the registered rooms say. */
+    public int getNextRoomId() {
+        lock.lock();
+        try {
+            return nextRoomId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Where the journal is known to be intact; GameJournal.open only needs to scan the rest. */
+    public JournalPosition getCheckpoint() {
+        return checkpoint;
+    }
+
+    public Map<Integer, GameSnapshot> loadAll() throws IOException {
+        Map<Integer, GameSnapshot> snapshots = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "room-*.snap")) {
+            for (Path file : files) {
+                try {
+                    GameSnapshot snapshot = GameSnapshot.read(checked(Files.readAllBytes(file)));
+                    snapshots.put(snapshot.getRoomId(), snapshot);
+                } catch (RuntimeException e) {
+                    System.err.println("SNAPSHOT ERROR: ignoring " + file + ": " + e);
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    private static byte[] checked(byte[] file) {
+        if (file.length < 4) throw new IllegalArgumentException("Truncated snapshot");
+        ByteBuffer b = ByteBuffer.wrap(file);
+        int expected = b.getInt();
+        CRC32C crc = new CRC32C();
+        crc.update(file, 4, file.length - 4);
+        if ((int) crc.getValue() != expected) throw new IllegalArgumentException("Snapshot CRC mismatch");
+        byte[] snapshot = new byte[file.length - 4];
+        b.get(snapshot);
+        return snapshot;
+    }
+
+    public void recordRestore(int rooms, long replayedInputs, long millis) {
+        this.lastRestoredRooms = rooms;
+        this.lastReplayedInputs = replayedInputs;
+        this.lastRestoreMillis = millis;
+    }
+
+    private Path fileFor(int roomId) {
+        return directory.resolve("room-" + roomId + ".snap");
+    }
+
+    public String report() {
+        long count = snapshotsWritten.get();
+        return "snapshots=" + count +
+                " lastSize=" + lastSnapshotSize + "B" +
+                " avgSize=" + (count == 0 ? 0 : bytesWritten.get() / count) + "B" +
+                " avgCapture=" + (count == 0 ? 0 : captureNanos.get() / count / 1000) + "us" +
+                " | last restore: rooms=" + lastRestoredRooms + " tailInputs=" + lastReplayedInputs +
+                " time=" + lastRestoreMillis + "ms";
+    }
+
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
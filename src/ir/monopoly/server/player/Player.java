@@ -2,9 +2,16 @@ package ir.monopoly.server.player;
 
 import ir.monopoly.server.datastructure.MyStack;
 import ir.monopoly.server.datastructure.PropertyTree;
+import ir.monopoly.server.property.ColorGroup;
 import ir.monopoly.server.property.Property;
 
 public class Player implements Comparable<Player> {
+    /** Called after anything that changes getTotalWealth(). */
+    @FunctionalInterface
+    public interface WealthListener {
+        void onWealthChanged(Player player);
+    }
+
     private final int playerId;
     private final String name;
     private int balance;
@@ -14,6 +21,13 @@ public class Player implements Comparable<Player> {
     private boolean hasChanceJailCard = false;
     private boolean hasCommunityJailCard = false;
     private PropertyTree ownedProperties;
+    private final int[] groupCounts = new int[ColorGroup.COUNT];
+    private int propertyValue = 0;
+    private final Property.ValueListener valueListener = delta -> {
+        propertyValue += delta;
+        wealthChanged();
+    };
+    private WealthListener wealthListener;
 
     public Player(int playerId, String name, int initialBalance) {
         this.playerId = playerId;
@@ -27,6 +41,9 @@ public class Player implements Comparable<Player> {
     public void incrementJailTurns() { this.jailTurns++; }
     public int getJailTurns() { return jailTurns; }
     public void resetJailTurns() { this.jailTurns = 0; }
+    public void setJailTurns(int jailTurns) { this.jailTurns = jailTurns; }
+    public boolean hasChanceJailCard() { return hasChanceJailCard; }
+    public boolean hasCommunityJailCard() { return hasCommunityJailCard; }
 
     public void releaseFromJail() {
         this.status = PlayerStatus.ACTIVE;
@@ -38,6 +55,11 @@ public class Player implements Comparable<Player> {
         else hasCommunityJailCard = true;
     }
 
+    public void setJailCards(boolean chance, boolean communityChest) {
+        hasChanceJailCard = chance;
+        hasCommunityJailCard = communityChest;
+    }
+
     public boolean useJailCard() {
         if (hasChanceJailCard) {
             hasChanceJailCard = false;
@@ -52,7 +74,16 @@ public class Player implements Comparable<Player> {
     public int getPlayerId() { return playerId; }
     public String getName() { return name; }
     public int getBalance() { return balance; }
-    public void changeBalance(int amount) { this.balance += amount; }
+    public void changeBalance(int amount) {
+        this.balance += amount;
+        wealthChanged();
+    }
+
+    public void setWealthListener(WealthListener wealthListener) { this.wealthListener = wealthListener; }
+
+    private void wealthChanged() {
+        if (wealthListener != null) wealthListener.onWealthChanged(this);
+    }
     public int getCurrentPosition() { return currentPosition; }
     public void setCurrentPosition(int position) { this.currentPosition = position; }
     public PlayerStatus getStatus() { return status; }
@@ -60,26 +91,57 @@ public class Player implements Comparable<Player> {
     public PropertyTree getOwnedProperties() { return ownedProperties; }
 
     public void addProperty(Property property) {
-        ownedProperties.insert(property);
+        if (ownedProperties.insert(property)) {
+            groupCounts[property.getGroup().ordinal()]++;
+            propertyValue += property.getValue();
+            property.setValueListener(valueListener);
+            wealthChanged();
+        }
         property.setOwner(playerId);
     }
 
     public void removeProperty(int propertyId) {
-        ownedProperties.remove(propertyId);
+        Property removed = ownedProperties.remove(propertyId);
+        if (removed != null) {
+            groupCounts[removed.getGroup().ordinal()]--;
+            propertyValue -= removed.getValue();
+            if (removed.getValueListener() == valueListener) removed.setValueListener(null);
+            wealthChanged();
+        }
+    }
+
+    public int countInGroup(ColorGroup group) {
+        return groupCounts[group.ordinal()];
+    }
+
+    public boolean ownsFullGroup(ColorGroup group) {
+        return groupCounts[group.ordinal()] >= group.getSize();
     }
 
+    /**
+     * Cash plus the value of every owned property, kept up to date as balance, holdings
+     * and buildings change. With assertions enabled it is checked against a full
+     * recomputation on every read.
+     */
     public int getTotalWealth() {
-        final int[] sum = {0};
-        ownedProperties.forEach(p -> {
-            sum[0] += p.getPurchasePrice() + (p.getHouseCount() * p.getHouseCost());
-            if (p.hasHotel()) sum[0] += p.getHouseCost();
-        });
-        return this.balance + sum[0];
+        assert propertyValue == recomputePropertyValue()
+                : name + ": incremental property value " + propertyValue + " != " + recomputePropertyValue();
+        return balance + propertyValue;
+    }
+
+    /** Sums the owned properties from scratch; only for checking the incremental value. */
+    public int recomputePropertyValue() {
+        int sum = 0;
+        for (int id = ownedProperties.nextId(0); id >= 0; id = ownedProperties.nextId(id + 1)) {
+            sum += ownedProperties.get(id).getValue();
+        }
+        return sum;
     }
 
     public String getPropertiesString() {
         StringBuilder sb = new StringBuilder();
-        ownedProperties.forEach(p -> {
+        for (int id = ownedProperties.nextId(0); id >= 0; id = ownedProperties.nextId(id + 1)) {
+            Property p = ownedProperties.get(id);
             if (sb.length() > 0) sb.append("|");
             sb.append(p.getName())
                     .append(",").append(p.getColorGroup())
@@ -88,7 +150,7 @@ public class Player implements Comparable<Player> {
                     .append(",").append(p.isMortgaged())
                     .append(",").append(p.getPurchasePrice())
                     .append(",").append(p.getPropertyId());
-        });
+        }
         return sb.toString();
     }
 
@@ -0,0 +1,43 @@
+package ir.monopoly.server.property;
+
+/**
+ * Property groups with the number of properties that make a full set on the standard
+ * board. The display name is what clients see.
+ */
+public enum ColorGroup {
+    BROWN("Brown", 2),
+    LIGHT_BLUE("Light Blue", 3),
+    PINK("Pink", 3),
+    ORANGE("Orange", 3),
+    RED("Red", 3),
+    YELLOW("Yellow", 3),
+    GREEN("Green", 3),
+    DARK_BLUE("Dark Blue", 2),
+    RAILROAD("Railroad", 4),
+    UTILITY("Utility", 2);
+
+    public static final int COUNT = values().length;
+
+    private final String displayName;
+    private final int size;
+
+    ColorGroup(String displayName, int size) {
+        this.displayName = displayName;
+        this.size = size;
+    }
+
+    public String getDisplayName() { return displayName; }
+    public int getSize() { return size; }
+
+    /** Group of the street on the given tile of the standard board. */
+    public static ColorGroup ofStreet(int tileId) {
+        if (tileId < 5) return BROWN;
+        if (tileId < 10) return LIGHT_BLUE;
+        if (tileId < 15) return PINK;
+        if (tileId < 20) return ORANGE;
+        if (tileId < 25) return RED;
+        if (tileId < 30) return YELLOW;
+        if (tileId < 35) return GREEN;
+        return DARK_BLUE;
+    }
+}
@@ -1,30 +1,41 @@
 package ir.monopoly.server.property;
 
 public class Property {
+    /** Told how much getValue() changed; the owning Player keeps its net worth with it. */
+    @FunctionalInterface
+    public interface ValueListener {
+        void onValueChanged(int delta);
+    }
+
     private final int propertyId;
     private final String name;
     private final int purchasePrice;
-    private final String colorGroup;
+    private final ColorGroup group;
     private final int houseCost;
     private int houseCount = 0;
     private boolean hasHotel = false;
     private boolean mortgaged = false;
     private Integer ownerId = null;
     private final int mortgageValue;
+    private final int[] rentTable;
+    private int rentSlot = RentTable.BARE;
+    private ValueListener valueListener;
 
-    public Property(int propertyId, String name, int purchasePrice, String colorGroup, int houseCost, int mortgageValue) {
+    public Property(int propertyId, String name, int purchasePrice, ColorGroup group, int houseCost, int mortgageValue) {
         this.propertyId = propertyId;
         this.name = name;
         this.purchasePrice = purchasePrice;
-        this.colorGroup = colorGroup;
+        this.group = group;
         this.houseCost = houseCost;
         this.mortgageValue = mortgageValue;
+        this.rentTable = RentTable.of(group, purchasePrice);
     }
 
     public int getPropertyId() { return propertyId; }
     public String getName() { return name; }
     public int getPurchasePrice() { return purchasePrice; }
-    public String getColorGroup() { return colorGroup; }
+    public ColorGroup getGroup() { return group; }
+    public String getColorGroup() { return group.getDisplayName(); }
     public int getHouseCost() { return houseCost; }
     public int getHouseCount() { return houseCount; }
     public boolean hasHotel() { return hasHotel; }
@@ -35,25 +46,60 @@ public class Property {
 
     public void setOwner(int ownerId) { this.ownerId = ownerId; }
     public void clearOwner() { this.ownerId = null; }
-    public void setMortgaged(boolean mortgaged) { this.mortgaged = mortgaged; }
+    public ValueListener getValueListener() { return valueListener; }
+    public void setValueListener(ValueListener valueListener) { this.valueListener = valueListener; }
+
+    /** Net worth of the property to its owner: price plus buildings, less the mortgage owed. */
+    public int getValue() {
+        int value = purchasePrice + houseCost * (houseCount + (hasHotel ? 1 : 0));
+        return mortgaged ? value - mortgageValue : value;
+    }
+
+    public void setMortgaged(boolean mortgaged) {
+        int before = getValue();
+        this.mortgaged = mortgaged;
+        stateChanged(before);
+    }
+
+    public void addHouse() {
+        int before = getValue();
+        if (houseCount < 4) houseCount++;
+        stateChanged(before);
+    }
+
+    public void addHotel() {
+        int before = getValue();
+        hasHotel = true;
+        stateChanged(before);
+    }
+
+    public void removeHouses(int count) {
+        int before = getValue();
+        houseCount = Math.max(0, houseCount - count);
+        stateChanged(before);
+    }
+
+    public void removeHotel() {
+        int before = getValue();
+        hasHotel = false;
+        stateChanged(before);
+    }
+
+    private void stateChanged(int before) {
+        rentSlot = RentTable.slotOf(houseCount, hasHotel);
+        int delta = getValue() - before;
+        if (delta != 0 && valueListener != null) valueListener.onValueChanged(delta);
+    }
 
-    public void addHouse() { if (houseCount < 4) houseCount++; }
-    public void addHotel() { hasHotel = true; }
-    public void removeHouses(int count) { houseCount = Math.max(0, houseCount - count); }
-    public void removeHotel() { hasHotel = false; }
+    /**
+     * Precomputed rent schedule: by rent slot for streets, by count held for railroads,
+     * dice multiplier by count held for utilities. Shared; do not modify.
+     */
+    public int[] getRentTable() { return rentTable; }
 
+    /** Street rent; a hotel outranks the four houses it replaces. */
     public int calculateRent(boolean hasFullGroup) {
-        if (isMortgaged()) return 0;
-        int baseRent = purchasePrice / 10;
-        if (hasFullGroup && houseCount == 0) return baseRent * 2;
-        switch (houseCount) {
-            case 1: return baseRent * 5;
-            case 2: return baseRent * 15;
-            case 3: return baseRent * 40;
-            case 4: return baseRent * 70;
-            default:
-                if (hasHotel) return baseRent * 100;
-        }
-        return baseRent;
+        if (mortgaged) return 0;
+        return rentTable[rentSlot == RentTable.BARE && hasFullGroup ? RentTable.FULL_SET : rentSlot];
     }
 }
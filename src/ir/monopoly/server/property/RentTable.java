@@ -0,0 +1,38 @@
+package ir.monopoly.server.property;
+
+/**
+ * Rent schedules, computed once per property when the board is built. A street's
+ * table is indexed by rent slot (see Property): bare, bare with the full set, one to
+ * four houses, hotel. Railroad rent is indexed by the number of railroads the owner
+ * holds and the utility table holds the dice multiplier by utilities held. The
+ * arrays are shared and must not be modified.
+ */
+public final class RentTable {
+    public static final int BARE = 0;
+    public static final int FULL_SET = 1;
+    public static final int HOTEL = 6;
+    private static final int[] STREET_MULTIPLIERS = {1, 2, 5, 15, 40, 70, 100};
+
+    static final int[] RAILROAD = {0, 25, 50, 100, 200};
+    static final int[] UTILITY_MULTIPLIER = {0, 4, 10};
+
+    private RentTable() {
+    }
+
+    static int[] of(ColorGroup group, int purchasePrice) {
+        if (group == ColorGroup.RAILROAD) return RAILROAD;
+        if (group == ColorGroup.UTILITY) return UTILITY_MULTIPLIER;
+        int baseRent = purchasePrice / 10;
+        int[] table = new int[STREET_MULTIPLIERS.length];
+        for (int slot = 0; slot < table.length; slot++) {
+            table[slot] = baseRent * STREET_MULTIPLIERS[slot];
+        }
+        return table;
+    }
+
+    /** The slot of a street with the given buildings, before the full-set bonus. */
+    static int slotOf(int houseCount, boolean hasHotel) {
+        if (hasHotel) return HOTEL;
+        return houseCount == 0 ? BARE : houseCount + 1;
+    }
+}
@@ -0,0 +1,8 @@
+package ir.monopoly.server.simulation;
+
+public enum BankruptcyCause {
+    RENT,
+    TAX,
+    CARD,
+    JAIL_FINE
+}
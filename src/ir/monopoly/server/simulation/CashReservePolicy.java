@@ -0,0 +1,43 @@
+package ir.monopoly.server.simulation;
+
+import ir.monopoly.server.game.GameState;
+import ir.monopoly.server.game.PropertyService;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.property.Property;
+
+/**
+ * Only spends money it can spare: buys, bids and builds as long as the balance
+ * stays at or above the reserve.
+ */
+public class CashReservePolicy implements PlayerPolicy {
+    private final int reserve;
+
+    public CashReservePolicy(int reserve) {
+        this.reserve = reserve;
+    }
+
+    @Override
+    public boolean shouldBuy(Player player, Property property, GameState gameState) {
+        return player.getBalance() - property.getPurchasePrice() >= reserve;
+    }
+
+    @Override
+    public int bid(Player player, Property property, int currentBid, GameState gameState) {
+        int next = currentBid + 10;
+        return next <= Math.min(property.getPurchasePrice(), player.getBalance() - reserve) ? next : 0;
+    }
+
+    @Override
+    public void manageAssets(Player player, GameState gameState) {
+        player.getOwnedProperties().forEach(property -> {
+            if (property.getHouseCost() > 0 && !property.isMortgaged() &&
+                    player.getBalance() - property.getHouseCost() >= reserve) {
+                PropertyService.buildOnProperty(player, property, gameState);
+            }
+        });
+    }
+
+    public int getReserve() {
+        return reserve;
+    }
+}
@@ -0,0 +1,25 @@
+package ir.monopoly.server.simulation;
+
+/**
+ * Outcome of one headless game. Seats are 0-based indexes into the policy array;
+ * bankruptcies[seat] is null for players who survived.
+ */
+public class GameResult {
+    private final int winnerSeat;
+    private final int turns;
+    private final boolean turnLimitReached;
+    private final BankruptcyCause[] bankruptcies;
+
+    public GameResult(int winnerSeat, int turns, boolean turnLimitReached, BankruptcyCause[] bankruptcies) {
+        this.winnerSeat = winnerSeat;
+        this.turns = turns;
+        this.turnLimitReached = turnLimitReached;
+        this.bankruptcies = bankruptcies;
+    }
+
+    public int getWinnerSeat() { return winnerSeat; }
+    public int getTurns() { return turns; }
+    public boolean isTurnLimitReached() { return turnLimitReached; }
+    public BankruptcyCause getBankruptcyCause(int seat) { return bankruptcies[seat]; }
+    public int getSeatCount() { return bankruptcies.length; }
+}
@@ -0,0 +1,33 @@
+package ir.monopoly.server.simulation;
+
+import ir.monopoly.server.game.GameState;
+import ir.monopoly.server.game.PropertyService;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.property.Property;
+
+/**
+ * Buys everything it can afford, bids up to the list price and builds whenever it
+ * holds a full set and has the cash.
+ */
+public class GreedyPolicy implements PlayerPolicy {
+
+    @Override
+    public boolean shouldBuy(Player player, Property property, GameState gameState) {
+        return player.getBalance() >= property.getPurchasePrice();
+    }
+
+    @Override
+    public int bid(Player player, Property property, int currentBid, GameState gameState) {
+        int next = currentBid + 10;
+        return next <= Math.min(property.getPurchasePrice(), player.getBalance()) ? next : 0;
+    }
+
+    @Override
+    public void manageAssets(Player player, GameState gameState) {
+        player.getOwnedProperties().forEach(property -> {
+            if (property.getHouseCost() > 0 && !property.isMortgaged()) {
+                PropertyService.buildOnProperty(player, property, gameState);
+            }
+        });
+    }
+}
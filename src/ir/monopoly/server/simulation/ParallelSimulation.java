@@ -0,0 +1,72 @@
+package ir.monopoly.server.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Splits a batch of games across a ForkJoinPool and merges the per-task statistics.
+ * Game i always plays on its own dice stream seeded from (seed, i), so the same
+ * seed gives identical statistics for any thread count or split.
+ */
+public class ParallelSimulation {
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    private final SimulationEngine engine;
+    private final int seats;
+
+    public ParallelSimulation(PlayerPolicy[] policies) {
+        this(policies, SimulationEngine.DEFAULT_MAX_TURNS);
+    }
+
+    public ParallelSimulation(PlayerPolicy[] policies, int maxTurns) {
+        this.engine = new SimulationEngine(policies, maxTurns);
+        this.seats = policies.length;
+    }
+
+    public SimulationStats run(long games, long seed, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.invoke(new Batch(seed, 0, games));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static long gameSeed(long seed, long gameIndex) {
+        long z = seed + (gameIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private class Batch extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long seed;
+        private final long from;
+        private final long to;
+
+        Batch(long seed, long from, long to) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                SimulationStats stats = new SimulationStats(seats);
+                for (long i = from; i < to; i++) {
+                    stats.add(engine.playGame(gameSeed(seed, i)));
+                }
+                return stats;
+            }
+
+            long mid = (from + to) >>> 1;
+            Batch left = new Batch(seed, from, mid);
+            left.fork();
+            SimulationStats right = new Batch(seed, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
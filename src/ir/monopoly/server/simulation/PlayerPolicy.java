@@ -0,0 +1,31 @@
+package ir.monopoly.server.simulation;
+
+import ir.monopoly.server.game.GameState;
+import ir.monopoly.server.game.MortgageManager;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.property.Property;
+
+/**
+ * The decisions a seat makes in a headless game. The engine applies every decision
+ * through the same managers the server uses.
+ */
+public interface PlayerPolicy {
+
+    boolean shouldBuy(Player player, Property property, GameState gameState);
+
+    /** Returns the bid to place; anything not above currentBid, or more than the player has, passes. */
+    int bid(Player player, Property property, int currentBid, GameState gameState);
+
+    /** Called at the start of each of the player's turns, before the roll. */
+    default void manageAssets(Player player, GameState gameState) {
+    }
+
+    /** Called when a tax, card or jail fine left the balance negative. */
+    default void raiseCash(Player player, GameState gameState) {
+        player.getOwnedProperties().forEach(property -> {
+            if (player.getBalance() < 0) {
+                MortgageManager.mortgageProperty(player, property, gameState);
+            }
+        });
+    }
+}
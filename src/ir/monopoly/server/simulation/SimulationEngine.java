@@ -0,0 +1,177 @@
+package ir.monopoly.server.simulation;
+
+import ir.monopoly.server.board.Tile;
+import ir.monopoly.server.board.TileType;
+import ir.monopoly.server.game.AuctionManager;
+import ir.monopoly.server.game.BankruptcyManager;
+import ir.monopoly.server.game.Dice;
+import ir.monopoly.server.game.GameEventType;
+import ir.monopoly.server.game.GameInitializer;
+import ir.monopoly.server.game.GameState;
+import ir.monopoly.server.game.PropertyService;
+import ir.monopoly.server.game.RollResolver;
+import ir.monopoly.server.game.TileResolver;
+import ir.monopoly.server.game.TurnManager;
+import ir.monopoly.server.player.Player;
+import ir.monopoly.server.player.PlayerStatus;
+import ir.monopoly.server.property.Property;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Plays complete games without a server, sockets or console output. Each seat is
+ * driven by a PlayerPolicy; rolls, tiles, purchases, auctions and bankruptcies go
+ * through the same game classes GameController uses. One roll per turn, as on the
+ * server. A balance left negative by tax, a card or the jail fine that the policy
+ * cannot cover by mortgaging bankrupts the player to the bank.
+ * The engine keeps no per-game state, so one instance can play games on several
+ * threads at once as long as the policies are stateless.
+ */
+public class SimulationEngine {
+
+    public static final int STARTING_BALANCE = 1500;
+    public static final int DEFAULT_MAX_TURNS = 1000;
+
+    private final PlayerPolicy[] policies;
+    private final int maxTurns;
+
+    public SimulationEngine(PlayerPolicy[] policies) {
+        this(policies, DEFAULT_MAX_TURNS);
+    }
+
+    public SimulationEngine(PlayerPolicy[] policies, int maxTurns) {
+        if (policies.length < 2 || policies.length > 4) {
+            throw new IllegalArgumentException("A game needs 2 to 4 players");
+        }
+        this.policies = policies;
+        this.maxTurns = maxTurns;
+    }
+
+    public GameResult playGame() {
+        return playGame(new SplittableRandom().nextLong());
+    }
+
+    /** Every roll of the game, including utility rent rolls, comes from the dice stream of this seed. */
+    public GameResult playGame(long seed) {
+        return play(newGame(seed));
+    }
+
+    /** The starting state playGame(seed) uses, for callers that install a recorder before play(). */
+    public GameState newGame(long seed) {
+        List<Player> players = new ArrayList<>(policies.length);
+        for (int seat = 0; seat < policies.length; seat++) {
+            players.add(new Player(seat + 1, "Player " + (seat + 1), STARTING_BALANCE));
+        }
+        return GameInitializer.initializeGame(players, false, seed);
+    }
+
+    public GameResult play(GameState gameState) {
+        TurnManager turnManager = gameState.getTurnManager();
+        BankruptcyCause[] causes = new BankruptcyCause[policies.length];
+
+        while (true) {
+            playTurn(turnManager.getCurrentPlayer(), gameState, causes);
+            if (countActive(gameState) <= 1 || turnManager.getTurnCounter() >= maxTurns) break;
+            turnManager.passTurn();
+        }
+
+        return new GameResult(findWinner(gameState), turnManager.getTurnCounter(), countActive(gameState) > 1, causes);
+    }
+
+    private void playTurn(Player player, GameState gameState, BankruptcyCause[] causes) {
+        PlayerPolicy policy = policyOf(player);
+        policy.manageAssets(player, gameState);
+
+        Dice dice = gameState.getDice();
+        int total = dice.roll();
+        gameState.getEvents().publishRoll(GameEventType.ROLL, player.getPlayerId(), dice.getDie1(), dice.getDie2(), dice.getRollIndex());
+        switch (RollResolver.resolveJail(player, dice, gameState.getCardDeck())) {
+            case STAYED_IN_JAIL:
+                return;
+            case PAID_FINE:
+                if (!settleDebt(player, gameState)) {
+                    causes[seatOf(player)] = BankruptcyCause.JAIL_FINE;
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+
+        int position = RollResolver.move(player, total, gameState.getBoard());
+        Tile tile = gameState.getBoard().getTileAt(position);
+        TileResolver.resolveTile(position, player, gameState);
+
+        if (player.getStatus() == PlayerStatus.BANKRUPT) {
+            causes[seatOf(player)] = BankruptcyCause.RENT;
+            return;
+        }
+        if (!settleDebt(player, gameState)) {
+            causes[seatOf(player)] = tile.getTileType() == TileType.CARD ? BankruptcyCause.CARD : BankruptcyCause.TAX;
+            return;
+        }
+
+        if (tile.getTileType() == TileType.PROPERTY) {
+            Property property = (Property) tile.getTileData();
+            if (property.getOwnerId() == null) {
+                offerProperty(player, property, gameState);
+            }
+        }
+    }
+
+    private boolean settleDebt(Player player, GameState gameState) {
+        if (player.getBalance() >= 0) return true;
+        policyOf(player).raiseCash(player, gameState);
+        if (player.getBalance() >= 0) return true;
+        BankruptcyManager.processBankruptcy(player, null, gameState);
+        return false;
+    }
+
+    private void offerProperty(Player player, Property property, GameState gameState) {
+        if (player.getBalance() >= property.getPurchasePrice() &&
+                policyOf(player).shouldBuy(player, property, gameState) &&
+                PropertyService.buyProperty(player, property, gameState)) {
+            return;
+        }
+
+        gameState.startAuction(property);
+        AuctionManager auction = gameState.getAuctionManager();
+        while (gameState.isAuctionActive()) {
+            Player bidder = auction.getCurrentBidder();
+            int amount = policyOf(bidder).bid(bidder, property, auction.getCurrentHighestBid(), gameState);
+
+            // A bid the player cannot cover counts as a pass; placeBid would bankrupt them for it.
+            if (amount <= auction.getCurrentHighestBid() || amount > bidder.getBalance() ||
+                    !auction.placeBid(bidder, amount)) {
+                auction.passBid(bidder);
+            }
+        }
+        gameState.endAuction();
+    }
+
+    private int findWinner(GameState gameState) {
+        Player best = null;
+        for (Player p : gameState.getPlayers()) {
+            if (p.getStatus() == PlayerStatus.BANKRUPT) continue;
+            if (best == null || p.getTotalWealth() > best.getTotalWealth()) best = p;
+        }
+        return best == null ? -1 : seatOf(best);
+    }
+
+    private static int countActive(GameState gameState) {
+        int active = 0;
+        for (Player p : gameState.getPlayers()) {
+            if (p.getStatus() != PlayerStatus.BANKRUPT) active++;
+        }
+        return active;
+    }
+
+    private PlayerPolicy policyOf(Player player) {
+        return policies[seatOf(player)];
+    }
+
+    private static int seatOf(Player player) {
+        return player.getPlayerId() - 1;
+    }
+}
@@ -0,0 +1,76 @@
+package ir.monopoly.server.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Aggregate results of a batch of games. Workers fill their own instance and the
+ * instances are merged, so no counter is shared between threads.
+ */
+public class SimulationStats {
+    private final int[] wins;
+    private final long[] causes = new long[BankruptcyCause.values().length];
+    private long games;
+    private long totalTurns;
+    private long turnLimitGames;
+
+    public SimulationStats(int seats) {
+        this.wins = new int[seats];
+    }
+
+    public void add(GameResult result) {
+        games++;
+        totalTurns += result.getTurns();
+        if (result.isTurnLimitReached()) turnLimitGames++;
+        if (result.getWinnerSeat() >= 0) wins[result.getWinnerSeat()]++;
+        for (int seat = 0; seat < result.getSeatCount(); seat++) {
+            BankruptcyCause cause = result.getBankruptcyCause(seat);
+            if (cause != null) causes[cause.ordinal()]++;
+        }
+    }
+
+    public SimulationStats merge(SimulationStats other) {
+        games += other.games;
+        totalTurns += other.totalTurns;
+        turnLimitGames += other.turnLimitGames;
+        for (int seat = 0; seat < wins.length; seat++) wins[seat] += other.wins[seat];
+        for (int i = 0; i < causes.length; i++) causes[i] += other.causes[i];
+        return this;
+    }
+
+    public long getGames() { return games; }
+    public long getTurnLimitGames() { return turnLimitGames; }
+    public int getWins(int seat) { return wins[seat]; }
+    public long getBankruptcies(BankruptcyCause cause) { return causes[cause.ordinal()]; }
+
+    public double getWinRate(int seat) {
+        return games == 0 ? 0 : (double) wins[seat] / games;
+    }
+
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("games=%d avgTurns=%.2f turnLimitReached=%d%n", games, getAverageTurns(), turnLimitGames));
+        for (int seat = 0; seat < wins.length; seat++) {
+            sb.append(String.format("seat %d: wins=%d (%.2f%%)%n", seat + 1, wins[seat], 100 * getWinRate(seat)));
+        }
+        for (BankruptcyCause cause : BankruptcyCause.values()) {
+            sb.append("bankrupt by ").append(cause).append(": ").append(causes[cause.ordinal()]).append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof SimulationStats other)) return false;
+        return games == other.games && totalTurns == other.totalTurns && turnLimitGames == other.turnLimitGames &&
+                Arrays.equals(wins, other.wins) && Arrays.equals(causes, other.causes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(totalTurns) * 31 + Arrays.hashCode(wins);
+    }
+}
@@ -0,0 +1,53 @@
+package ir.monopoly.shared;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Chooses whether connection handlers, network listeners and room executors run on
+ * platform threads or Java 21 virtual threads. The blocking I/O code is the same in
+ * both modes; only the threads underneath it change.
+ */
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL;
+
+    public static final String PROPERTY = "monopoly.threads";
+
+    public static ExecutionMode fromArgs(String[] args) {
+        for (String arg : args) {
+            if (arg.equalsIgnoreCase("--virtual")) return VIRTUAL;
+            if (arg.equalsIgnoreCase("--platform")) return PLATFORM;
+        }
+        return fromSystemProperty();
+    }
+
+    public static ExecutionMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY, "platform");
+        return value.equalsIgnoreCase("virtual") ? VIRTUAL : PLATFORM;
+    }
+
+    public ThreadFactory threadFactory(String namePrefix, boolean daemon) {
+        if (this == VIRTUAL) {
+            return Thread.ofVirtual().name(namePrefix + "-", 0).factory();
+        }
+        return Thread.ofPlatform().name(namePrefix + "-", 0).daemon(daemon).factory();
+    }
+
+    public Thread startThread(String name, boolean daemon, Runnable task) {
+        if (this == VIRTUAL) {
+            return Thread.ofVirtual().name(name).start(task);
+        }
+        return Thread.ofPlatform().name(name).daemon(daemon).start(task);
+    }
+
+    /** Room tasks never write to sockets (connections queue their output), so a fixed pool is enough. */
+    public ExecutorService newRoomPool() {
+        if (this == VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(threadFactory("room-worker", true));
+        }
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                threadFactory("room-worker", true));
+    }
+}